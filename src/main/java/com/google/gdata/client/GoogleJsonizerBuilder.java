@@ -1,7 +1,11 @@
 package com.google.gdata.client;
 
+import java.util.Date;
+
 import sk.seges.acris.json.client.JsonizerBuilder;
 
+import com.google.gdata.client.deserialize.DateDeserializer;
+import com.google.gdata.client.deserialize.GeneratedDeserializers;
 import com.google.gdata.client.deserialize.SourceDeserializer;
 import com.google.gdata.client.deserialize.StringDeserializer;
 import com.google.gdata.client.deserialize.TextConstructDeserializer;
@@ -17,7 +21,9 @@ public class GoogleJsonizerBuilder extends JsonizerBuilder {
 	@Override
 	protected void registerDefaultDeserializers() {
 		super.registerDefaultDeserializers();
+		GeneratedDeserializers.registerDeserializers(this);
 		registerDeserializer(String.class, new StringDeserializer());
+		registerDeserializer(Date.class, new DateDeserializer());
 		registerDeserializer(TextConstruct.class, new TextConstructDeserializer());
 
 		registerDeserializer(Source.class, new SourceDeserializer());
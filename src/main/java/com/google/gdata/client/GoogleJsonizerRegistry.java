@@ -0,0 +1,57 @@
+package com.google.gdata.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import sk.seges.acris.json.client.IJsonizer;
+import sk.seges.acris.json.client.deserialization.JsonDeserializer;
+
+/**
+ * Process-wide {@link IJsonizer} shared by all response handlers. The jsonizer is built lazily by
+ * {@link GoogleJsonizerBuilder} on first use and is never modified afterwards. Custom deserializers have to be
+ * registered before that, typically in the entry point.
+ */
+public final class GoogleJsonizerRegistry {
+
+	private static final Map<Class<?>, JsonDeserializer<?, ?>> customDeserializers = new LinkedHashMap<Class<?>, JsonDeserializer<?, ?>>();
+
+	private static IJsonizer jsonizer;
+
+	private GoogleJsonizerRegistry() {
+	}
+
+	/**
+	 * Registers a deserializer on top of the defaults of {@link GoogleJsonizerBuilder}.
+	 *
+	 * @throws IllegalStateException
+	 *             if the shared jsonizer was already built.
+	 */
+	public static <T> void registerDeserializer(Class<T> clazz, JsonDeserializer<T, ?> deserializer) {
+		if (jsonizer != null) {
+			throw new IllegalStateException("Shared jsonizer is already in use, register " + clazz.getName()
+					+ " deserializer before the first request");
+		}
+		customDeserializers.put(clazz, deserializer);
+	}
+
+	/**
+	 * Returns the shared jsonizer, building it on first call.
+	 */
+	public static IJsonizer getJsonizer() {
+		if (jsonizer == null) {
+			GoogleJsonizerBuilder jsonizerBuilder = new GoogleJsonizerBuilder();
+			for (Entry<Class<?>, JsonDeserializer<?, ?>> entry : customDeserializers.entrySet()) {
+				register(jsonizerBuilder, entry.getKey(), entry.getValue());
+			}
+			jsonizer = jsonizerBuilder.create();
+		}
+		return jsonizer;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> void register(GoogleJsonizerBuilder jsonizerBuilder, Class<T> clazz,
+			JsonDeserializer<?, ?> deserializer) {
+		jsonizerBuilder.registerDeserializer(clazz, (JsonDeserializer<T, ?>) deserializer);
+	}
+}
@@ -1,13 +1,17 @@
 package com.google.gdata.client;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.TreeMap;
 
+import com.google.gdata.client.util.Rfc3339DateTime;
 import com.google.gdata.data.ICategory;
 import com.google.gdata.util.common.base.CharEscapers;
+import com.google.gdata.util.common.base.Escaper;
 
 /* Copyright (c) 2008 Google Inc.
  *
@@ -80,6 +84,8 @@ public class Query {
 	/** Author name or e-mail address for matched entries. */
 	private String author;
 
+	// the dates are copied by the setters and the getters, the query cannot be changed through them
+
 	/** Minimum updated timestamp for matched entries. */
 	private Date updatedMin;
 
@@ -116,10 +122,33 @@ public class Query {
 
 	private boolean callback = false;
 
+	private boolean compactJson = false;
+
 	/**
-	 * The list of custom parameters associated with the query.
+	 * The custom parameters associated with the query keyed by name and sorted by it. Parameters of the same name are
+	 * kept in the order they were added.
 	 */
-	private List<CustomParameter> customParameters = new ArrayList<CustomParameter>();
+	private TreeMap<String, List<CustomParameter>> customParameters = new TreeMap<String, List<CustomParameter>>();
+
+	/** All custom parameters in name order, {@code null} when the parameters changed since it was created. */
+	private List<CustomParameter> customParameterList;
+
+	/** Modifiable view of the custom parameters returned by {@link #getCustomParameters()}. */
+	private final List<CustomParameter> customParameterView = new CustomParameterList();
+
+	/** Query URI memoized by {@link #getQueryUri()}, {@code null} when the query changed since. */
+	private String queryUri;
+
+	/** Sum of the modification counts of the category filters the memoized query URI was built from. */
+	private int queryUriFiltersModCount;
+
+	/** URL memoized by {@link #getUrl()} together with the query URI it was built from. */
+	private String url;
+
+	private String urlQueryUri;
+
+	/** Memoized hash code, zero when not computed yet. */
+	private int hash;
 
 	/**
 	 * Constructs a new Query object that targets a feed. The initial state of the query contains no parameters, meaning
@@ -132,9 +161,94 @@ public class Query {
 		this.feedUrl = feedUrl;
 	}
 
+	/**
+	 * Constructs a copy of the query. Changes of the copy do not affect the source query and vice versa.
+	 * 
+	 * @param source
+	 *            the query to copy.
+	 */
+	protected Query(Query source) {
+		feedUrl = source.feedUrl;
+		for (CategoryFilter categoryFilter : source.categoryFilters) {
+			categoryFilters.add(new CategoryFilter(categoryFilter.categories, categoryFilter.excludeCategories));
+		}
+		fields = source.fields;
+		queryString = source.queryString;
+		author = source.author;
+		updatedMin = copy(source.updatedMin);
+		updatedMax = copy(source.updatedMax);
+		publishedMin = copy(source.publishedMin);
+		publishedMax = copy(source.publishedMax);
+		startIndex = source.startIndex;
+		maxResults = source.maxResults;
+		resultFormat = source.resultFormat;
+		strict = source.strict;
+		callback = source.callback;
+		compactJson = source.compactJson;
+		// the lists of values are never modified, they are replaced
+		customParameters.putAll(source.customParameters);
+	}
+
+	/**
+	 * Returns a copy of the query, e.g. to issue it with a changed parameter. Subclasses override it to return their
+	 * own type.
+	 */
+	public Query copy() {
+		return new Query(this);
+	}
+
+	private static Date copy(Date date) {
+		return date != null ? new Date(date.getTime()) : null;
+	}
+
 	protected void useCallbackFunction() {
-		callback = true;
-		overwriteCustomParameter(GDataProtocol.Query.ALT, ResultFormat.JSON_IN_SCRIPT.paramValue);
+		setCallbackFunction(true);
+	}
+
+	/**
+	 * Requests the JSON response wrapped in a call of a callback function, as needed when the response is loaded by a
+	 * script element, or plain JSON.
+	 * 
+	 * @param callback
+	 *            {@code true} for "json-in-script" with callback function, {@code false} for plain "json"
+	 */
+	public void setCallbackFunction(boolean callback) {
+		this.callback = callback;
+		invalidate();
+		updateJsonFormat();
+	}
+
+	/**
+	 * Returns {@code true} if the response is requested wrapped in a call of a callback function.
+	 */
+	public boolean isCallbackFunction() {
+		return callback;
+	}
+
+	/**
+	 * Requests the JSON response in the compact JSON-C format ("jsonc", "jsonc-in-script") instead of the GData JSON
+	 * format. Takes effect for responses requested by {@link #setCallbackFunction(boolean)}.
+	 */
+	public void setCompactJson(boolean compactJson) {
+		this.compactJson = compactJson;
+		invalidate();
+		if (getCustomParameters(GDataProtocol.Query.ALT).size() > 0) {
+			updateJsonFormat();
+		}
+	}
+
+	public boolean isCompactJson() {
+		return compactJson;
+	}
+
+	private void updateJsonFormat() {
+		ResultFormat format;
+		if (compactJson) {
+			format = callback ? ResultFormat.JSONC_IN_SCRIPT : ResultFormat.JSONC;
+		} else {
+			format = callback ? ResultFormat.JSON_IN_SCRIPT : ResultFormat.JSON;
+		}
+		overwriteCustomParameter(GDataProtocol.Query.ALT, format.paramValue);
 	}
 
 	/**
@@ -154,6 +268,7 @@ public class Query {
 	 */
 	public void setFields(String fields) {
 		this.fields = fields;
+		invalidate();
 	}
 
 	/**
@@ -171,6 +286,7 @@ public class Query {
 	 */
 	public void setFullTextQuery(String query) {
 		this.queryString = query;
+		invalidate();
 	}
 
 	/**
@@ -199,15 +315,26 @@ public class Query {
 		/** List of categories that returned entries must match. */
 		private final List<ICategory> categories;
 
+		/** Number of categories added, lets queries detect a change of the filter. */
+		private int modCount = 0;
+
+		/**
+		 * Returns unmodifiable view of the categories that returned entries must match, categories are added by
+		 * {@link #addCategory(ICategory)}.
+		 */
 		public List<ICategory> getCategories() {
-			return categories;
+			return Collections.unmodifiableList(categories);
 		}
 
 		/** List of categories that returned entries must match. */
 		private final List<ICategory> excludeCategories;
 
+		/**
+		 * Returns unmodifiable view of the categories that returned entries must not match, categories are added by
+		 * {@link #addExcludeCategory(ICategory)}.
+		 */
 		public List<ICategory> getExcludeCategories() {
-			return excludeCategories;
+			return Collections.unmodifiableList(excludeCategories);
 		}
 
 		/**
@@ -220,17 +347,17 @@ public class Query {
 
 		/**
 		 * Creates a new category filter using the supplied inclusion and exclusion lists. A null value for either is
-		 * equivalent to an empty list.
+		 * equivalent to an empty list. The lists are copied, later changes of them do not affect the filter.
 		 */
 		public CategoryFilter(List<ICategory> included, List<ICategory> excluded) {
 
 			if (included != null) {
-				categories = included;
+				categories = new LinkedList<ICategory>(included);
 			} else {
 				categories = new LinkedList<ICategory>();
 			}
 			if (excluded != null) {
-				excludeCategories = excluded;
+				excludeCategories = new LinkedList<ICategory>(excluded);
 			} else {
 				excludeCategories = new LinkedList<ICategory>();
 			}
@@ -256,6 +383,7 @@ public class Query {
 		 */
 		public void addCategory(ICategory category) {
 			categories.add(category);
+			modCount++;
 		}
 
 		/**
@@ -267,6 +395,7 @@ public class Query {
 		 */
 		public void addExcludeCategory(ICategory category) {
 			excludeCategories.add(category);
+			modCount++;
 		}
 
 		private String getQueryString(ICategory category) {
@@ -283,6 +412,39 @@ public class Query {
 			return sb.toString();
 		}
 
+		/**
+		 * Returns the category conditions in the format used by a Query URI with the included and the excluded
+		 * categories sorted, so filters with the same conditions give the same string.
+		 */
+		String toCanonicalString() {
+			List<String> included = new ArrayList<String>(categories.size());
+			for (ICategory category : categories) {
+				included.add(getQueryString(category));
+			}
+			Collections.sort(included);
+
+			List<String> excluded = new ArrayList<String>(excludeCategories.size());
+			for (ICategory category : excludeCategories) {
+				excluded.add("-" + getQueryString(category));
+			}
+			Collections.sort(excluded);
+
+			StringBuilder sb = new StringBuilder();
+			for (String condition : included) {
+				if (sb.length() > 0) {
+					sb.append("|");
+				}
+				sb.append(condition);
+			}
+			for (String condition : excluded) {
+				if (sb.length() > 0) {
+					sb.append("|");
+				}
+				sb.append(condition);
+			}
+			return sb.toString();
+		}
+
 		/**
 		 * Returns a string representation for the category conditions in the CategoryFilter, in the format used by a
 		 * Query URI.
@@ -320,6 +482,7 @@ public class Query {
 	 */
 	public void addCategoryFilter(CategoryFilter categoryFilter) {
 		categoryFilters.add(categoryFilter);
+		invalidate();
 	}
 
 	/**
@@ -340,6 +503,7 @@ public class Query {
 	 */
 	public void setAuthor(String author) {
 		this.author = author;
+		invalidate();
 	}
 
 	/**
@@ -361,7 +525,8 @@ public class Query {
 	 *            filtering.
 	 */
 	public void setUpdatedMin(Date updatedMin) {
-		this.updatedMin = updatedMin;
+		this.updatedMin = copy(updatedMin);
+		invalidate();
 	}
 
 	/**
@@ -371,7 +536,7 @@ public class Query {
 	 * @return minimum updated timestamp for matched entries. A value of {@code null} indicates no minimum timestamp.
 	 */
 	public Date getUpdatedMin() {
-		return this.updatedMin;
+		return copy(this.updatedMin);
 	}
 
 	/**
@@ -383,7 +548,8 @@ public class Query {
 	 *            filtering.
 	 */
 	public void setUpdatedMax(Date updatedMax) {
-		this.updatedMax = updatedMax;
+		this.updatedMax = copy(updatedMax);
+		invalidate();
 	}
 
 	/**
@@ -393,7 +559,7 @@ public class Query {
 	 * @return maximum updated timestamp for matched entries. A value of {@code null} indicates no maximum timestamp.
 	 */
 	public Date getUpdatedMax() {
-		return this.updatedMax;
+		return copy(this.updatedMax);
 	}
 
 	/**
@@ -405,7 +571,8 @@ public class Query {
 	 *            filtering.
 	 */
 	public void setPublishedMin(Date publishedMin) {
-		this.publishedMin = publishedMin;
+		this.publishedMin = copy(publishedMin);
+		invalidate();
 	}
 
 	/**
@@ -415,7 +582,7 @@ public class Query {
 	 * @return minimum published timestamp for matched entries. A value of {@code null} indicates no minimum timestamp.
 	 */
 	public Date getPublishedMin() {
-		return this.publishedMin;
+		return copy(this.publishedMin);
 	}
 
 	/**
@@ -427,7 +594,8 @@ public class Query {
 	 *            filtering.
 	 */
 	public void setPublishedMax(Date publishedMax) {
-		this.publishedMax = publishedMax;
+		this.publishedMax = copy(publishedMax);
+		invalidate();
 	}
 
 	/**
@@ -437,7 +605,7 @@ public class Query {
 	 * @return maximum published timestamp for matched entries. A value of {@code null} indicates no maximum timestamp.
 	 */
 	public Date getPublishedMax() {
-		return this.publishedMax;
+		return copy(this.publishedMax);
 	}
 
 	/**
@@ -454,6 +622,7 @@ public class Query {
 			throw new IllegalArgumentException("Start index must be positive");
 		}
 		this.startIndex = startIndex;
+		invalidate();
 	}
 
 	/**
@@ -478,6 +647,7 @@ public class Query {
 			throw new IllegalArgumentException("Max results must be zero or larger");
 		}
 		this.maxResults = maxResults;
+		invalidate();
 	}
 
 	/**
@@ -510,6 +680,7 @@ public class Query {
 	 */
 	public void setResultFormat(ResultFormat resultFormat) {
 		this.resultFormat = resultFormat;
+		invalidate();
 	}
 
 	/**
@@ -529,6 +700,7 @@ public class Query {
 	 */
 	public void setStrict(boolean strict) {
 		this.strict = strict;
+		invalidate();
 	}
 
 	/**
@@ -569,6 +741,23 @@ public class Query {
 		public String getValue() {
 			return value;
 		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof CustomParameter)) {
+				return false;
+			}
+			CustomParameter other = (CustomParameter) obj;
+			return equal(name, other.name) && equal(value, other.value);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (name == null ? 0 : name.hashCode()) + (value == null ? 0 : value.hashCode());
+		}
 	}
 
 	/**
@@ -581,16 +770,127 @@ public class Query {
 		if (customParameter == null) {
 			throw new NullPointerException("Null custom parameter");
 		}
-		customParameters.add(customParameter);
+		insertCustomParameter(customParameter);
+	}
+
+	private void insertCustomParameter(CustomParameter customParameter) {
+		List<CustomParameter> values = customParameters.get(customParameter.name);
+		if (values == null) {
+			customParameters.put(customParameter.name, Collections.singletonList(customParameter));
+		} else {
+			List<CustomParameter> added = new ArrayList<CustomParameter>(values.size() + 1);
+			added.addAll(values);
+			added.add(customParameter);
+			customParameters.put(customParameter.name, added);
+		}
+		invalidate();
 	}
 
 	/**
-	 * Returns the list of custom parameters.
+	 * Returns the list of custom parameters sorted by name.
 	 * 
-	 * @return all custom parameters for the query. An empty list will be returned if there are no custom parameters.
+	 * @return all custom parameters for the query. The list is a view, changes of the list are changes of the query.
+	 *         Added parameters are sorted in by name. An empty list will be returned if there are no custom parameters.
 	 */
 	public List<CustomParameter> getCustomParameters() {
-		return customParameters;
+		return customParameterView;
+	}
+
+	private List<CustomParameter> getCustomParameterList() {
+		if (customParameterList == null) {
+			List<CustomParameter> list = new ArrayList<CustomParameter>();
+			for (List<CustomParameter> values : customParameters.values()) {
+				list.addAll(values);
+			}
+			customParameterList = list;
+		}
+		return customParameterList;
+	}
+
+	/**
+	 * Replaces or removes, when the replacement is {@code null}, the parameter at the given position among the
+	 * parameters of the same name.
+	 */
+	private void replaceCustomParameter(String name, int position, CustomParameter replacement) {
+		List<CustomParameter> values = new ArrayList<CustomParameter>(customParameters.get(name));
+		if (replacement != null) {
+			values.set(position, replacement);
+		} else {
+			values.remove(position);
+		}
+		if (values.isEmpty()) {
+			customParameters.remove(name);
+		} else {
+			customParameters.put(name, values.size() == 1 ? Collections.singletonList(values.get(0)) : values);
+		}
+		invalidate();
+	}
+
+	/**
+	 * List of all custom parameters backed by the parameter map, see {@link Query#getCustomParameters()}.
+	 */
+	private class CustomParameterList extends AbstractList<CustomParameter> {
+
+		@Override
+		public CustomParameter get(int index) {
+			return getCustomParameterList().get(index);
+		}
+
+		@Override
+		public int size() {
+			return getCustomParameterList().size();
+		}
+
+		@Override
+		public boolean add(CustomParameter customParameter) {
+			addCustomParameter(customParameter);
+			modCount++;
+			return true;
+		}
+
+		@Override
+		public CustomParameter set(int index, CustomParameter customParameter) {
+			if (customParameter == null) {
+				throw new NullPointerException("Null custom parameter");
+			}
+			CustomParameter previous = get(index);
+			if (previous.name.equals(customParameter.name)) {
+				replaceCustomParameter(previous.name, getPosition(index), customParameter);
+			} else {
+				// the parameter moves to the parameters of its name
+				remove(index);
+				add(customParameter);
+			}
+			return previous;
+		}
+
+		@Override
+		public CustomParameter remove(int index) {
+			CustomParameter previous = get(index);
+			replaceCustomParameter(previous.name, getPosition(index), null);
+			modCount++;
+			return previous;
+		}
+
+		@Override
+		public void clear() {
+			customParameters.clear();
+			invalidate();
+			modCount++;
+		}
+
+		/**
+		 * Returns the position of the parameter at the given index among the parameters of the same name.
+		 */
+		private int getPosition(int index) {
+			List<CustomParameter> list = getCustomParameterList();
+			String name = list.get(index).name;
+			int first = index;
+			while (first > 0 && list.get(first - 1).name.equals(name)) {
+				first--;
+			}
+			return index - first;
+		}
 	}
 
 	/**
@@ -598,48 +898,40 @@ public class Query {
 	 * 
 	 * @param name
 	 *            the name value to match for returned parameters.
-	 * @return all parameters that have the specified name. An empty list will be returned if there are no matching
-	 *         parameters.
+	 * @return all parameters that have the specified name, unmodifiable. An empty list will be returned if there are no
+	 *         matching parameters.
 	 */
 	public List<CustomParameter> getCustomParameters(String name) {
-		List<CustomParameter> matchList = new ArrayList<CustomParameter>();
-		for (CustomParameter param : customParameters) {
-			if (param.name.equals(name)) {
-				matchList.add(param);
-			}
+		List<CustomParameter> values = customParameters.get(name);
+		if (values == null) {
+			return Collections.emptyList();
 		}
-		return matchList;
+		return values.size() == 1 ? values : Collections.unmodifiableList(values);
 	}
 
 	protected void overwriteCustomParameter(String name, String value) {
-		List<CustomParameter> customParams = getCustomParameters();
-
-		// Remove any existing value.
-		for (CustomParameter existingValue : getCustomParameters(name)) {
-			customParams.remove(existingValue);
-		}
-
-		// Add the specified value.
 		if (value != null) {
-			customParams.add(new CustomParameter(name, value));
+			customParameters.put(name, Collections.singletonList(new CustomParameter(name, value)));
+		} else {
+			customParameters.remove(name);
 		}
+		invalidate();
 	}
 
 	/**
-	 * Appends specified query (parameter, value) to provided query URL buffer.
-	 * 
-	 * @param queryBuf
-	 *            base URI buffer to append to.
-	 * @param paramName
-	 *            query parameter name.
-	 * @param paramValue
-	 *            query parameter value.
+	 * Drops the memoized query URI and hash code, called whenever the state of the query changes.
+	 */
+	protected void invalidate() {
+		queryUri = null;
+		customParameterList = null;
+		hash = 0;
+	}
+
+	/**
+	 * Formats the date as RFC 3339 timestamp expected by the date parameters.
 	 */
-	protected void appendQueryParameter(StringBuilder queryBuf, String paramName, String paramValue) {
-		queryBuf.append(queryBuf.length() != 0 ? '&' : '?');
-		queryBuf.append(paramName);
-		queryBuf.append("=");
-		queryBuf.append(paramValue);
+	private static String formatDateTime(Date date) {
+		return Rfc3339DateTime.format(date);
 	}
 
 	/**
@@ -656,6 +948,8 @@ public class Query {
 	 * Returns the relative query URI that represents only the query parameters without any components related to the
 	 * target feed. Subclasses of the Query class may override this method to add additional URI path elements or HTTP
 	 * query parameters to represent service-specific parameters.
+	 * <p>
+	 * The URI is canonical, category filters and custom parameters are sorted. It is memoized until the query changes.
 	 * 
 	 * @return URI representing current query.
 	 */
@@ -665,76 +959,125 @@ public class Query {
 			throw new IllegalStateException("Unsupported Query");
 		}
 
-		StringBuilder pathBuf = new StringBuilder();
+		int filtersModCount = getCategoryFiltersModCount();
+		if (queryUri == null || queryUriFiltersModCount != filtersModCount) {
+			queryUri = buildQueryUri();
+			queryUriFiltersModCount = filtersModCount;
+		}
+		return queryUri;
+	}
+
+	private int getCategoryFiltersModCount() {
+		int modCount = 0;
+		for (CategoryFilter categoryFilter : categoryFilters) {
+			modCount += categoryFilter.modCount;
+		}
+		return modCount;
+	}
+
+	/**
+	 * Returns the category filters as canonical strings in sorted order.
+	 */
+	private List<String> getCanonicalCategoryFilters() {
+		List<String> filters = new ArrayList<String>(categoryFilters.size());
+		for (CategoryFilter categoryFilter : categoryFilters) {
+			filters.add(categoryFilter.toCanonicalString());
+		}
+		Collections.sort(filters);
+		return filters;
+	}
+
+	private String buildQueryUri() {
+		Escaper escaper = CharEscapers.uriEscaper();
+		StringBuilder buf = new StringBuilder();
 
 		if (categoryFilters.size() != 0) {
 
-			pathBuf.append("-"); // signals beginning of query path elements
-			for (CategoryFilter categoryFilter : categoryFilters) {
-				pathBuf.append("/");
-				pathBuf.append(CharEscapers.uriEscaper().escape(categoryFilter.toString()));
+			buf.append("-"); // signals beginning of query path elements
+			for (String categoryFilter : getCanonicalCategoryFilters()) {
+				buf.append("/");
+				escaper.escape(categoryFilter, buf);
 			}
 		}
 
-		StringBuilder queryBuf = new StringBuilder();
+		int queryStart = buf.length();
 		if (queryString != null) {
-			appendQueryParameter(queryBuf, GDataProtocol.Query.FULL_TEXT, CharEscapers.uriEscaper().escape(queryString));
+			appendEscapedQueryParameter(buf, queryStart, GDataProtocol.Query.FULL_TEXT, queryString);
 		}
 
 		if (author != null) {
-			appendQueryParameter(queryBuf, GDataProtocol.Query.AUTHOR, CharEscapers.uriEscaper().escape(author));
+			appendEscapedQueryParameter(buf, queryStart, GDataProtocol.Query.AUTHOR, author);
 		}
 
 		if (resultFormat != ResultFormat.DEFAULT) {
-			appendQueryParameter(queryBuf, GDataProtocol.Parameter.ALT, resultFormat.paramValue());
+			appendEscapedQueryParameter(buf, queryStart, GDataProtocol.Parameter.ALT, resultFormat.paramValue());
 		}
 
 		if (updatedMin != null) {
-			appendQueryParameter(queryBuf, GDataProtocol.Query.UPDATED_MIN, CharEscapers.uriEscaper().escape(
-					updatedMin.toString()));
+			appendEscapedQueryParameter(buf, queryStart, GDataProtocol.Query.UPDATED_MIN, formatDateTime(updatedMin));
 		}
 
 		if (updatedMax != null) {
-			appendQueryParameter(queryBuf, GDataProtocol.Query.UPDATED_MAX, CharEscapers.uriEscaper().escape(
-					updatedMax.toString()));
+			appendEscapedQueryParameter(buf, queryStart, GDataProtocol.Query.UPDATED_MAX, formatDateTime(updatedMax));
 		}
 
 		if (publishedMin != null) {
-			appendQueryParameter(queryBuf, GDataProtocol.Query.PUBLISHED_MIN, CharEscapers.uriEscaper().escape(
-					publishedMin.toString()));
+			appendEscapedQueryParameter(buf, queryStart, GDataProtocol.Query.PUBLISHED_MIN, formatDateTime(publishedMin));
 		}
 
 		if (publishedMax != null) {
-			appendQueryParameter(queryBuf, GDataProtocol.Query.PUBLISHED_MAX, CharEscapers.uriEscaper().escape(
-					publishedMax.toString()));
+			appendEscapedQueryParameter(buf, queryStart, GDataProtocol.Query.PUBLISHED_MAX, formatDateTime(publishedMax));
 		}
 
 		if (startIndex != UNDEFINED) {
-			appendQueryParameter(queryBuf, GDataProtocol.Query.START_INDEX, Integer.toString(startIndex));
+			startQueryParameter(buf, queryStart, GDataProtocol.Query.START_INDEX);
+			buf.append(startIndex);
 		}
 
 		if (maxResults != UNDEFINED) {
-			appendQueryParameter(queryBuf, GDataProtocol.Query.MAX_RESULTS, Integer.toString(maxResults));
+			startQueryParameter(buf, queryStart, GDataProtocol.Query.MAX_RESULTS);
+			buf.append(maxResults);
 		}
 
 		if (fields != null) {
-			appendQueryParameter(queryBuf, GDataProtocol.Query.FIELDS, CharEscapers.uriEscaper().escape(fields));
+			appendEscapedQueryParameter(buf, queryStart, GDataProtocol.Query.FIELDS, fields);
 		}
 
 		if (strict) {
-			appendQueryParameter(queryBuf, GDataProtocol.Parameter.STRICT, "true");
+			appendEscapedQueryParameter(buf, queryStart, GDataProtocol.Parameter.STRICT, "true");
 		}
 
-		for (CustomParameter customParameter : customParameters) {
-			appendQueryParameter(queryBuf, CharEscapers.uriEscaper().escape(customParameter.name), CharEscapers
-					.uriEscaper().escape(customParameter.value));
+		for (CustomParameter customParameter : getCustomParameterList()) {
+			buf.append(buf.length() != queryStart ? '&' : '?');
+			escaper.escape(customParameter.name, buf);
+			buf.append('=');
+			escaper.escape(customParameter.value, buf);
 		}
 
 		if (callback) {
-			appendQueryParameter(queryBuf, GDataProtocol.Parameter.CALLBACK, "");
+			startQueryParameter(buf, queryStart, GDataProtocol.Parameter.CALLBACK);
 		}
 
-		return pathBuf.toString() + queryBuf.toString();
+		return buf.toString();
+	}
+
+	/**
+	 * Appends the parameter name and the equals sign, preceded by the separator of the parameters starting at the given
+	 * position of the buffer.
+	 */
+	private static void startQueryParameter(StringBuilder buf, int queryStart, String paramName) {
+		buf.append(buf.length() != queryStart ? '&' : '?');
+		buf.append(paramName);
+		buf.append('=');
+	}
+
+	/**
+	 * Appends the parameter with the value escaped directly into the buffer.
+	 */
+	private static void appendEscapedQueryParameter(StringBuilder buf, int queryStart, String paramName,
+			String paramValue) {
+		startQueryParameter(buf, queryStart, paramName);
+		CharEscapers.uriEscaper().escape(paramValue, buf);
 	}
 
 	/**
@@ -744,10 +1087,13 @@ public class Query {
 	 */
 	public String getUrl() {
 
-		String queryUri = getQueryUri().toString();
+		String queryUri = getQueryUri();
 		if (queryUri.length() == 0) {
 			return feedUrl;
 		}
+		if (url != null && urlQueryUri == queryUri) {
+			return url;
+		}
 
 		// Build the full query URL. An earlier implementation of this
 		// was done using URI.resolve(), but there are issues if both the
@@ -760,7 +1106,56 @@ public class Query {
 		}
 		urlBuf.append(queryUri);
 
-		return urlBuf.toString();
+		url = urlBuf.toString();
+		urlQueryUri = queryUri;
+		return url;
+	}
+
+	/**
+	 * Compares the state of the queries. Queries equal when they target the same feed with the same parameters,
+	 * regardless of the order the custom parameters and category filters were added in.
+	 * <p>
+	 * A query used as a key must not be changed afterwards, neither by its setters nor by adding categories to its
+	 * filters. Key on a snapshot made by {@link #copy()} when the query may still change.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		Query other = (Query) obj;
+		return startIndex == other.startIndex && maxResults == other.maxResults && strict == other.strict
+				&& callback == other.callback && compactJson == other.compactJson
+				&& resultFormat == other.resultFormat && equal(feedUrl, other.feedUrl)
+				&& equal(queryString, other.queryString) && equal(fields, other.fields)
+				&& equal(author, other.author) && equal(updatedMin, other.updatedMin)
+				&& equal(updatedMax, other.updatedMax) && equal(publishedMin, other.publishedMin)
+				&& equal(publishedMax, other.publishedMax) && customParameters.equals(other.customParameters)
+				&& (categoryFilters.isEmpty() ? other.categoryFilters.isEmpty() : getCanonicalCategoryFilters()
+						.equals(other.getCanonicalCategoryFilters()));
+	}
+
+	@Override
+	public int hashCode() {
+		int result = hash;
+		if (result == 0) {
+			result = 17;
+			result = 31 * result + (feedUrl == null ? 0 : feedUrl.hashCode());
+			result = 31 * result + (queryString == null ? 0 : queryString.hashCode());
+			result = 31 * result + startIndex;
+			result = 31 * result + maxResults;
+			result = 31 * result + customParameters.hashCode();
+			result = 31 * result + categoryFilters.size();
+			hash = result;
+		}
+		return result;
+	}
+
+	private static boolean equal(Object a, Object b) {
+		return a == null ? b == null : a.equals(b);
 	}
 
 	/**
@@ -772,15 +1167,7 @@ public class Query {
 	 *            the value to set it to
 	 */
 	public final void setStringCustomParameter(String name, String value) {
-		List<CustomParameter> customParams = getCustomParameters();
-
-		for (CustomParameter existingValue : getCustomParameters(name)) {
-			customParams.remove(existingValue);
-		}
-
-		if (value != null) {
-			customParams.add(new CustomParameter(name, value));
-		}
+		overwriteCustomParameter(name, value);
 	}
 
 	/**
@@ -791,13 +1178,8 @@ public class Query {
 	 * @return the value, or null if there is no parameter
 	 */
 	public final String getStringCustomParameter(String name) {
-		List<CustomParameter> params = getCustomParameters(name);
-
-		if (params.size() == 0) {
-			return null;
-		} else {
-			return params.get(0).getValue();
-		}
+		List<CustomParameter> params = customParameters.get(name);
+		return params == null ? null : params.get(0).getValue();
 	}
 
 	/**
@@ -11,6 +11,9 @@ import com.google.gwt.json.client.JSONValue;
 public abstract class BaseEntryDeserializer<T extends BaseEntry> extends JsonDeserializer<T, JSONValue> {
 	
 	protected void fromJson(EntryState entryState, JSONValue s, DeserializationContext context) {
+		if (GeneratedDeserializers.populate(s, entryState, context)) {
+			return;
+		}
 		IJsonizer entryStateJsonizer = context.getJsonizer();
 		entryStateJsonizer.fromJson(s, entryState);
 	}
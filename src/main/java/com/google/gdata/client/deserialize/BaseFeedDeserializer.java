@@ -1,5 +1,6 @@
 package com.google.gdata.client.deserialize;
 
+import java.util.LinkedList;
 import java.util.List;
 
 import sk.seges.acris.json.client.IJsonizer;
@@ -18,14 +19,29 @@ public abstract class BaseFeedDeserializer<T extends BaseFeed<?>, E extends Base
 	
 	protected abstract Class<E> getEntryClass();
 	
+	/**
+	 * Deserializes the feed state and adds all the entries, deserialized right away, to the given list.
+	 */
 	protected void fromJson(FeedState state, List<E> entries, JSONObject s, DeserializationContext context) {
-		IJsonizer feedStateJsonizer = context.getJsonizer();
-		feedStateJsonizer.fromJson(s, state, context);
-		
-		JSONValue jsonEntryValue = s.isObject().get(ENTRY_JSON_KEY);
+		entries.addAll(fromJson(state, s, context));
+	}
+
+	/**
+	 * Deserializes the feed state and returns the entries as {@link LazyEntryList}, so they are deserialized when
+	 * accessed. The repeated values of the entries are pooled by a {@link StringPool} of the feed.
+	 */
+	protected List<E> fromJson(FeedState state, JSONObject s, DeserializationContext context) {
+		if (!GeneratedDeserializers.populate(s, state, context)) {
+			IJsonizer feedStateJsonizer = context.getJsonizer();
+			feedStateJsonizer.fromJson(s, state, context);
+		}
+
+		JSONValue jsonEntryValue = s.get(ENTRY_JSON_KEY);
 		if (jsonEntryValue != null && jsonEntryValue.isArray() != null) {
-			IJsonizer videoEntryJsonizer = context.getJsonizer();
-			videoEntryJsonizer.fromJson(jsonEntryValue.isArray(), getEntryClass(), entries, context);
+			LazyEntryList<E> entries = new LazyEntryList<E>(jsonEntryValue.isArray(), getEntryClass(), context);
+			entries.setStringPool(new StringPool());
+			return entries;
 		}
+		return new LinkedList<E>();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.google.gdata.client.deserialize;
+
+import java.util.Date;
+
+import sk.seges.acris.json.client.context.DeserializationContext;
+import sk.seges.acris.json.client.deserialization.BaseJsonDeserializer;
+
+import com.google.gdata.client.util.Rfc3339DateTime;
+import com.google.gwt.json.client.JSONValue;
+
+/**
+ * Deserializes RFC 3339 timestamps and dates of the {@link com.google.gdata.data.Source#DATE_TIME_PATTERN} fields by
+ * {@link Rfc3339DateTime} instead of pattern based parsing. Values that are not valid timestamps are ignored.
+ */
+public class DateDeserializer extends BaseJsonDeserializer<Date> {
+
+	@Override
+	public Date deserialize(JSONValue s, DeserializationContext context) {
+		String dateString = _deserialize(s);
+		if (dateString == null) {
+			return null;
+		}
+		try {
+			return Rfc3339DateTime.parse(dateString);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package com.google.gdata.client.deserialize;
+
+import sk.seges.acris.json.client.JsonizerBuilder;
+import sk.seges.acris.json.client.context.DeserializationContext;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.json.client.JSONArray;
+import com.google.gwt.json.client.JSONBoolean;
+import com.google.gwt.json.client.JSONNumber;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONString;
+import com.google.gwt.json.client.JSONValue;
+
+/**
+ * Straight-line deserializers of the {@link sk.seges.acris.json.client.annotation.JsonObject} model classes of
+ * {@code com.google.gdata.data} and {@code com.google.gdata.data.youtube}, generated at compile time by
+ * {@code com.google.gdata.rebind.GeneratedDeserializersGenerator} from the {@code @Field} metadata. Generated code
+ * reads the fields directly instead of walking the metadata, the values of the fields other than numbers and booleans
+ * are deserialized by the jsonizer of the deserialization context.
+ * <p>
+ * Classes whose fields are not accessible to generated code, and extension points, have no generated deserializer.
+ * Outside of compiled GWT code no class has one.
+ */
+public abstract class GeneratedDeserializers {
+
+	private static GeneratedDeserializers instance;
+
+	private static boolean enabled = true;
+
+	private static GeneratedDeserializers get() {
+		if (!enabled) {
+			return null;
+		}
+		if (instance == null && GWT.isClient()) {
+			instance = GWT.create(GeneratedDeserializers.class);
+		}
+		return instance;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enables the generated deserializers, they are enabled by default. While disabled, objects are populated by the
+	 * jsonizer walking the field metadata and jsonizers built meanwhile do not register the generated deserializers.
+	 * Meant for comparing the generated code with the metadata driven one.
+	 */
+	public static void setEnabled(boolean enabled) {
+		GeneratedDeserializers.enabled = enabled;
+	}
+
+	/**
+	 * Populates the object from JSON by the deserializer generated for its class.
+	 *
+	 * @return {@code false} if there is no deserializer generated for the class, the object is left intact then.
+	 */
+	public static boolean populate(JSONValue json, Object target, DeserializationContext context) {
+		GeneratedDeserializers deserializers = get();
+		return deserializers != null && deserializers.populateObject(json, target, context);
+	}
+
+	/**
+	 * Registers the generated deserializers of classes deserialized by the jsonizer.
+	 */
+	public static void registerDeserializers(JsonizerBuilder jsonizerBuilder) {
+		GeneratedDeserializers deserializers = get();
+		if (deserializers != null) {
+			deserializers.register(jsonizerBuilder);
+		}
+	}
+
+	protected abstract boolean populateObject(JSONValue json, Object target, DeserializationContext context);
+
+	protected abstract void register(JsonizerBuilder jsonizerBuilder);
+
+	// conversions used by the generated code
+
+	/**
+	 * Returns the member of the object, {@code null} when the value is not an object or has no such member.
+	 */
+	public static JSONValue get(JSONValue value, String key) {
+		JSONObject object = value == null ? null : value.isObject();
+		return object == null ? null : object.get(key);
+	}
+
+	/**
+	 * Returns the array, a single value is returned as an array with one element.
+	 */
+	public static JSONArray toArray(JSONValue value) {
+		JSONArray array = value.isArray();
+		if (array == null) {
+			array = new JSONArray();
+			array.set(0, value);
+		}
+		return array;
+	}
+
+	/**
+	 * Returns the boolean value, or the default value when the value is not a boolean.
+	 */
+	public static boolean toBoolean(JSONValue value, boolean defaultValue) {
+		JSONBoolean bool = value.isBoolean();
+		if (bool != null) {
+			return bool.booleanValue();
+		}
+		JSONString string = value.isString();
+		if (string != null) {
+			return Boolean.parseBoolean(string.stringValue());
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * Returns the value of a number serialized either as JSON number or as string, or the default value when the value
+	 * is not a number.
+	 */
+	public static double toDouble(JSONValue value, double defaultValue) {
+		JSONNumber number = value.isNumber();
+		if (number != null) {
+			return number.doubleValue();
+		}
+		JSONString string = value.isString();
+		if (string != null) {
+			try {
+				return Double.parseDouble(string.stringValue());
+			} catch (NumberFormatException e) {
+				return defaultValue;
+			}
+		}
+		return defaultValue;
+	}
+
+	public static long toLong(JSONValue value, long defaultValue) {
+		JSONString string = value.isString();
+		if (string != null) {
+			// parsed exactly, not through double
+			try {
+				return Long.parseLong(string.stringValue());
+			} catch (NumberFormatException e) {
+				return defaultValue;
+			}
+		}
+		return (long) toDouble(value, defaultValue);
+	}
+
+	public static int toInt(JSONValue value, int defaultValue) {
+		return (int) toLong(value, defaultValue);
+	}
+}
@@ -0,0 +1,190 @@
+package com.google.gdata.client.deserialize;
+
+import java.util.Date;
+
+import sk.seges.acris.json.client.context.DeserializationContext;
+import sk.seges.acris.json.client.deserialization.JsonDeserializer;
+
+import com.google.gdata.client.Query;
+import com.google.gdata.client.util.Rfc3339DateTime;
+import com.google.gdata.data.Category;
+import com.google.gdata.data.Person;
+import com.google.gdata.data.PlainTextConstruct;
+import com.google.gdata.data.media.mediarss.MediaDescription;
+import com.google.gdata.data.media.mediarss.MediaThumbnail;
+import com.google.gdata.data.youtube.VideoEntry;
+import com.google.gdata.data.youtube.VideoFeed;
+import com.google.gdata.data.youtube.YouTubeMediaGroup;
+import com.google.gdata.data.youtube.YouTubeNamespace;
+import com.google.gdata.data.youtube.YtStatistics;
+import com.google.gwt.json.client.JSONArray;
+import com.google.gwt.json.client.JSONNumber;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONString;
+import com.google.gwt.json.client.JSONValue;
+
+/**
+ * Deserializes video feeds in the compact JSON-C format ({@code alt=jsonc}) into the same model as the GData JSON
+ * format. The flat JSON-C items are mapped directly, without the annotation driven mapping of the GData format. The
+ * repeated values of the entries are pooled by a {@link StringPool} of the feed, like the ones of GData feeds.
+ */
+public class JsoncVideoFeedDeserializer extends JsonDeserializer<VideoFeed, JSONObject> {
+
+	public static final String DATA_JSON_KEY = "data";
+
+	public static final String ITEMS_JSON_KEY = "items";
+
+	/** Prefix of the ids of video entries in the GData format, JSON-C items carry the bare video id. */
+	public static final String ENTRY_ID_PREFIX = "tag:youtube.com,2008:video:";
+
+	/** Scheme of the categories holding the tags of a video. */
+	public static final String KEYWORDS_SCHEME = YouTubeNamespace.URI + "/keywords.cat";
+
+	private static final String[] THUMBNAIL_KEYS = { "sqDefault", "hqDefault" };
+
+	private static final int[][] THUMBNAIL_SIZES = { { 120, 90 }, { 480, 360 } };
+
+	/**
+	 * Returns {@code true} if the response is a JSON-C response.
+	 */
+	public static boolean isJsonc(JSONObject json) {
+		JSONValue data = json.get(DATA_JSON_KEY);
+		return data != null && data.isObject() != null;
+	}
+
+	@Override
+	public VideoFeed deserialize(JSONObject s, DeserializationContext context) {
+		VideoFeed feed = new VideoFeed();
+
+		JSONValue dataValue = s.get(DATA_JSON_KEY);
+		JSONObject data = dataValue == null ? null : dataValue.isObject();
+		if (data == null) {
+			return feed;
+		}
+
+		feed.setUpdated(getDate(data, "updated"));
+		feed.setTotalResults(getInt(data, "totalItems"));
+		feed.setStartIndex(getInt(data, "startIndex"));
+		feed.setItemsPerPage(getInt(data, "itemsPerPage"));
+
+		JSONValue itemsValue = data.get(ITEMS_JSON_KEY);
+		JSONArray items = itemsValue == null ? null : itemsValue.isArray();
+		if (items != null) {
+			StringPool stringPool = new StringPool();
+			for (int i = 0; i < items.size(); i++) {
+				JSONObject item = items.get(i).isObject();
+				if (item != null) {
+					VideoEntry entry = toEntry(item);
+					stringPool.intern(entry);
+					feed.getEntries().add(entry);
+				}
+			}
+		}
+		return feed;
+	}
+
+	protected VideoEntry toEntry(JSONObject item) {
+		VideoEntry entry = new VideoEntry();
+		YouTubeMediaGroup mediaGroup = entry.getOrCreateMediaGroup();
+
+		String id = getString(item, "id");
+		if (id != null) {
+			entry.setId(ENTRY_ID_PREFIX + id);
+		}
+		mediaGroup.setVideoId(id);
+
+		entry.setPublished(getDate(item, "uploaded"));
+		entry.setUpdated(getDate(item, "updated"));
+		mediaGroup.setUploaded(entry.getPublished());
+
+		String title = getString(item, "title");
+		if (title != null) {
+			entry.setTitle(new PlainTextConstruct(title));
+		}
+
+		String uploader = getString(item, "uploader");
+		if (uploader != null) {
+			entry.getAuthors().add(new Person(uploader));
+		}
+
+		String category = getString(item, "category");
+		if (category != null) {
+			entry.getCategories().add(new Category(YouTubeNamespace.CATEGORY_SCHEME, category));
+		}
+
+		JSONValue tagsValue = item.get("tags");
+		JSONArray tags = tagsValue == null ? null : tagsValue.isArray();
+		if (tags != null) {
+			for (int i = 0; i < tags.size(); i++) {
+				JSONString tag = tags.get(i).isString();
+				if (tag != null) {
+					entry.getCategories().add(new Category(KEYWORDS_SCHEME, tag.stringValue()));
+				}
+			}
+		}
+
+		String description = getString(item, "description");
+		if (description != null) {
+			MediaDescription mediaDescription = new MediaDescription();
+			mediaDescription.setPlainTextContent(description);
+			mediaGroup.setDescription(mediaDescription);
+		}
+
+		JSONValue thumbnailValue = item.get("thumbnail");
+		JSONObject thumbnails = thumbnailValue == null ? null : thumbnailValue.isObject();
+		if (thumbnails != null) {
+			for (int i = 0; i < THUMBNAIL_KEYS.length; i++) {
+				String url = getString(thumbnails, THUMBNAIL_KEYS[i]);
+				if (url != null) {
+					MediaThumbnail thumbnail = new MediaThumbnail();
+					thumbnail.setUrl(url);
+					thumbnail.setWidth(THUMBNAIL_SIZES[i][0]);
+					thumbnail.setHeight(THUMBNAIL_SIZES[i][1]);
+					mediaGroup.addThumbnail(thumbnail);
+				}
+			}
+		}
+
+		if (item.containsKey("duration")) {
+			mediaGroup.setDuration(Long.valueOf(getLong(item, "duration")));
+		}
+
+		if (item.containsKey("viewCount") || item.containsKey("favoriteCount")) {
+			YtStatistics statistics = new YtStatistics();
+			statistics.setViewCount(getLong(item, "viewCount"));
+			statistics.setFavoriteCount(getLong(item, "favoriteCount"));
+			entry.setStatistics(statistics);
+		}
+		return entry;
+	}
+
+	private static String getString(JSONObject json, String key) {
+		JSONValue value = json.get(key);
+		JSONString string = value == null ? null : value.isString();
+		return string == null ? null : string.stringValue();
+	}
+
+	private static long getLong(JSONObject json, String key) {
+		JSONValue value = json.get(key);
+		JSONNumber number = value == null ? null : value.isNumber();
+		return number == null ? 0 : (long) number.doubleValue();
+	}
+
+	private static int getInt(JSONObject json, String key) {
+		JSONValue value = json.get(key);
+		JSONNumber number = value == null ? null : value.isNumber();
+		return number == null ? Query.UNDEFINED : (int) number.doubleValue();
+	}
+
+	private static Date getDate(JSONObject json, String key) {
+		String value = getString(json, key);
+		if (value == null) {
+			return null;
+		}
+		try {
+			return Rfc3339DateTime.parse(value);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package com.google.gdata.client.deserialize;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+import sk.seges.acris.json.client.IJsonizer;
+import sk.seges.acris.json.client.context.DeserializationContext;
+
+import com.google.gdata.data.BaseEntry;
+import com.google.gwt.json.client.JSONArray;
+
+/**
+ * List of feed entries deserialized from the retained JSON array when first accessed. Size and index access do not
+ * deserialize anything, each entry is deserialized once and kept, including entries deserialized as {@code null}. The
+ * retained JSON is released once every entry is deserialized. The list is fully deserialized on the first
+ * modification and behaves as an ordinary list afterwards.
+ */
+public class LazyEntryList<E> extends AbstractList<E> {
+
+	/** Marks an entry deserialized as {@code null}, so it is not deserialized again. */
+	private static final Object NULL_ENTRY = new Object();
+
+	private final Class<E> entryClass;
+
+	private JSONArray json;
+
+	private IJsonizer jsonizer;
+
+	private DeserializationContext context;
+
+	private Object[] entries;
+
+	private int remaining;
+
+	private List<E> modified;
+
+	private StringPool stringPool;
+
+	public LazyEntryList(JSONArray json, Class<E> entryClass, DeserializationContext context) {
+		this.json = json;
+		this.entryClass = entryClass;
+		this.jsonizer = context.getJsonizer();
+		this.context = context;
+		this.entries = new Object[json.size()];
+		this.remaining = entries.length;
+		if (remaining == 0) {
+			release();
+		}
+	}
+
+	@Override
+	public int size() {
+		return modified != null ? modified.size() : entries.length;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public E get(int index) {
+		if (modified != null) {
+			return modified.get(index);
+		}
+		if (index < 0 || index >= entries.length) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + entries.length);
+		}
+		Object entry = entries[index];
+		if (entry == null) {
+			entry = deserialize(index);
+			if (entry == null) {
+				entry = NULL_ENTRY;
+			}
+			entries[index] = entry;
+			if (--remaining == 0) {
+				release();
+			}
+		}
+		return entry == NULL_ENTRY ? null : (E) entry;
+	}
+
+	/**
+	 * Returns {@code true} if the entry at the index is already deserialized.
+	 */
+	public boolean isMaterialized(int index) {
+		return modified != null || entries[index] != null;
+	}
+
+	/**
+	 * Sets the pool canonicalizing the repeated values of the entries. The entries already deserialized are pooled
+	 * immediately, the other ones when deserialized.
+	 */
+	public void setStringPool(StringPool stringPool) {
+		for (Object entry : modified != null ? modified.toArray() : entries) {
+			if (entry instanceof BaseEntry) {
+				stringPool.intern((BaseEntry) entry);
+			}
+		}
+		if (modified == null && remaining > 0) {
+			this.stringPool = stringPool;
+		}
+	}
+
+	private E deserialize(int index) {
+		// deserialized as a single element array, so the entry gets the same context as the eager path
+		JSONArray single = new JSONArray();
+		single.set(0, json.get(index));
+		List<E> result = new ArrayList<E>(1);
+		jsonizer.fromJson(single, entryClass, result, context);
+		if (result.isEmpty()) {
+			return null;
+		}
+		E entry = result.get(0);
+		if (stringPool != null && entry instanceof BaseEntry) {
+			stringPool.intern((BaseEntry) entry);
+		}
+		return entry;
+	}
+
+	private void release() {
+		json = null;
+		jsonizer = null;
+		context = null;
+		stringPool = null;
+	}
+
+	private List<E> materialize() {
+		if (modified == null) {
+			List<E> list = new ArrayList<E>(entries.length);
+			for (int i = 0; i < entries.length; i++) {
+				list.add(get(i));
+			}
+			modified = list;
+			entries = null;
+		}
+		return modified;
+	}
+
+	@Override
+	public E set(int index, E element) {
+		return materialize().set(index, element);
+	}
+
+	@Override
+	public void add(int index, E element) {
+		materialize().add(index, element);
+		modCount++;
+	}
+
+	@Override
+	public E remove(int index) {
+		modCount++;
+		return materialize().remove(index);
+	}
+}
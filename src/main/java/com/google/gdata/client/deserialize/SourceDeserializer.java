@@ -11,6 +11,9 @@ import com.google.gwt.json.client.JSONValue;
 public class SourceDeserializer extends JsonDeserializer<Source, JSONValue> {
 
 	protected SourceState fromJson(SourceState state, JSONValue s, DeserializationContext context) {
+		if (GeneratedDeserializers.populate(s, state, context)) {
+			return state;
+		}
 		IJsonizer sourceStateJsonizer = context.getJsonizer();
 		sourceStateJsonizer.fromJson(s, state);
 		return state;
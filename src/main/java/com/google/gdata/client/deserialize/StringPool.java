@@ -0,0 +1,123 @@
+package com.google.gdata.client.deserialize;
+
+import java.util.HashMap;
+import java.util.List;
+
+import com.google.gdata.data.BaseEntry;
+import com.google.gdata.data.Category;
+import com.google.gdata.data.Link;
+import com.google.gdata.data.Person;
+import com.google.gdata.data.media.mediarss.MediaCategory;
+import com.google.gdata.data.youtube.VideoEntry;
+import com.google.gdata.data.youtube.YouTubeMediaContent;
+import com.google.gdata.data.youtube.YouTubeMediaGroup;
+
+/**
+ * Canonicalizes the strings repeated in every entry of a feed, like category schemes and terms, link relations and
+ * types, author names and media content types, so the entries share one instance of each value. Only short values
+ * are pooled. The pool is emptied when it reaches its maximum size, values interned before stay valid, they are just
+ * no longer shared with the values interned afterwards.
+ * <p>
+ * Every deserialized feed pools the values of its entries in a pool of its own, which is released with the JSON of
+ * the feed. A pool set to {@link com.google.gdata.client.youtube.VideoFeedCache} shares the values among the cached
+ * feeds as well.
+ */
+public class StringPool {
+
+	public static final int DEFAULT_MAX_SIZE = 2048;
+
+	/** Values longer than this are not pooled, they are unlikely to repeat. */
+	public static final int MAX_VALUE_LENGTH = 128;
+
+	private final int maxSize;
+
+	private final HashMap<String, String> values = new HashMap<String, String>();
+
+	public StringPool() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	public StringPool(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the pooled instance equal to the value.
+	 */
+	public String intern(String value) {
+		if (value == null || value.length() > MAX_VALUE_LENGTH) {
+			return value;
+		}
+		String pooled = values.get(value);
+		if (pooled != null) {
+			return pooled;
+		}
+		if (values.size() >= maxSize) {
+			values.clear();
+		}
+		values.put(value, value);
+		return value;
+	}
+
+	/**
+	 * Replaces the repeated values of the entries by the pooled instances. Entries of a {@link LazyEntryList} that are
+	 * not deserialized yet are pooled when deserialized.
+	 */
+	public void intern(List<? extends BaseEntry> entries) {
+		if (entries instanceof LazyEntryList) {
+			((LazyEntryList<?>) entries).setStringPool(this);
+			return;
+		}
+		for (BaseEntry entry : entries) {
+			if (entry != null) {
+				intern(entry);
+			}
+		}
+	}
+
+	/**
+	 * Replaces the repeated values of the entry by the pooled instances.
+	 */
+	public void intern(BaseEntry entry) {
+		for (Category category : entry.getCategories()) {
+			category.setScheme(intern(category.getScheme()));
+			category.setTerm(intern(category.getTerm()));
+			category.setLabel(intern(category.getLabel()));
+		}
+		for (Link link : entry.getLinks()) {
+			link.setRel(intern(link.getRel()));
+			link.setType(intern(link.getType()));
+		}
+		for (Person author : entry.getAuthors()) {
+			author.setName(intern(author.getName()));
+			author.setUri(intern(author.getUri()));
+		}
+
+		if (entry instanceof VideoEntry) {
+			YouTubeMediaGroup mediaGroup = ((VideoEntry) entry).getMediaGroup();
+			if (mediaGroup != null) {
+				for (YouTubeMediaContent content : mediaGroup.getYouTubeContents()) {
+					content.setType(intern(content.getType()));
+					content.setMedium(intern(content.getMedium()));
+					if (content.getYouTubeFormat() != null) {
+						// format numbers are small, Integer.valueOf returns shared instances of small numbers
+						content.setYouTubeFormat(Integer.valueOf(content.getYouTubeFormat().intValue()));
+					}
+				}
+				for (MediaCategory category : mediaGroup.getCategories()) {
+					category.setScheme(intern(category.getScheme()));
+					category.setLabel(intern(category.getLabel()));
+					category.setContent(intern(category.getContent()));
+				}
+			}
+		}
+	}
+
+	public int size() {
+		return values.size();
+	}
+
+	public void clear() {
+		values.clear();
+	}
+}
@@ -9,23 +9,28 @@ import com.google.gwt.json.client.JSONValue;
 
 public class VideoFeedDeserializer extends BaseFeedDeserializer<VideoFeed, VideoEntry> {
 
-	private static final String FEED_JSON_KEY = "feed";
+	public static final String FEED_JSON_KEY = "feed";
 	private static final String ITEM_JSON_KEY = "items";
 	
 	private SourceDeserializer sourceDeserializer = new SourceDeserializer();
+
+	private JsoncVideoFeedDeserializer jsoncDeserializer = new JsoncVideoFeedDeserializer();
 	
 	@Override
 	public VideoFeed deserialize(JSONObject s, DeserializationContext context) {
+		if (JsoncVideoFeedDeserializer.isJsonc(s)) {
+			return jsoncDeserializer.deserialize(s, context);
+		}
 		return new VideoFeed() {
 			public VideoFeed fromJson(JSONObject s, DeserializationContext context) {
 				JSONValue jsonValue = s.get(FEED_JSON_KEY);
 				if (jsonValue != null && jsonValue.isObject() != null) {
-					VideoFeedDeserializer.this.fromJson(this.feedState, this.entries, jsonValue.isObject(), context);
+					this.entries = VideoFeedDeserializer.this.fromJson(this.feedState, jsonValue.isObject(), context);
 					sourceDeserializer.fromJson(this.srcState, jsonValue.isObject(), context);
 				} else {
 					jsonValue = s.get(ITEM_JSON_KEY);
 					if (jsonValue != null && jsonValue.isObject() != null) {
-						VideoFeedDeserializer.this.fromJson(this.feedState, this.entries, jsonValue.isObject(), context);
+						this.entries = VideoFeedDeserializer.this.fromJson(this.feedState, jsonValue.isObject(), context);
 						sourceDeserializer.fromJson(this.srcState, jsonValue.isObject(), context);
 					}
 					//No feed, no fun
@@ -0,0 +1,19 @@
+package com.google.gdata.client.json;
+
+import com.google.gdata.client.Query;
+
+/**
+ * Transport able to issue conditional requests, so a resource already held is not downloaded again when unchanged.
+ */
+public interface ConditionalJSONTransport extends JSONTransport {
+
+	/**
+	 * Issues the query prepared by {@link #prepare(Query)} unless the resource still has given entity tag. An unchanged
+	 * resource is reported by {@link JSONRequestHandler#onNotModified()}.
+	 * 
+	 * @param etag
+	 *            entity tag of the resource held, see RFC 2616, Section 3.11
+	 * @return handle to cancel the request
+	 */
+	RequestHandle getIfNoneMatch(Query query, String etag, JSONRequestHandler handler, RequestPriority priority);
+}
@@ -0,0 +1,23 @@
+package com.google.gdata.client.json;
+
+import com.google.gdata.client.Query;
+
+/**
+ * Transport loading responses by {@link JSONRequest} through script elements. Works with every browser and server,
+ * but the response is evaluated as a script and HTTP errors are only seen as timeouts.
+ */
+public class JSONPTransport implements JSONTransport {
+
+	@Override
+	public void prepare(Query query) {
+		query.setCallbackFunction(true);
+	}
+
+	@Override
+	public RequestHandle get(Query query, JSONRequestHandler handler, RequestPriority priority) {
+		prepare(query);
+		JSONRequest request = new JSONRequest(priority);
+		request.get(query.getUrl(), handler);
+		return request;
+	}
+}
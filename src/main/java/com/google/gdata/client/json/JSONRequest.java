@@ -1,38 +1,327 @@
 package com.google.gdata.client.json;
 
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
 
-public class JSONRequest {
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.user.client.Timer;
 
-	protected static HashMap<Integer, Object> callbacks = new HashMap<Integer, Object>();
+/**
+ * Single JSONP request issued by injecting a {@code <script>} element. Every request owns a global callback function
+ * and a script element for as long as it is in flight. Both are released as soon as the response arrives; when the
+ * request times out or is cancelled they are released once the script loaded or failed, at the latest after
+ * {@link #LATE_RESPONSE_GRACE}, so long living pages do not accumulate dead callbacks and script nodes.
+ * <p>
+ * The number of requests in flight is capped, requests above the cap are queued and started once a slot is released.
+ * Queued requests are started in the order of their {@link RequestPriority}, requests of the same priority in the order
+ * they were issued. A queued request is lifted by one priority class every {@link #AGING_STEP} requests started before
+ * it, so low priority requests are not starved.
+ */
+public class JSONRequest implements RequestHandle {
+
+	/**
+	 * Default number of milliseconds after which the request is abandoned.
+	 */
+	public static final int DEFAULT_TIMEOUT = 15000;
+
+	/**
+	 * Default number of requests that can be in flight at the same time.
+	 */
+	public static final int DEFAULT_MAX_IN_FLIGHT = 6;
+
+	/**
+	 * Number of requests started ahead of a queued request that lift it by one priority class.
+	 */
+	public static final int AGING_STEP = 4;
+
+	/**
+	 * Number of milliseconds an abandoned request keeps its callback function and script element, so a late response
+	 * does not call an undefined function.
+	 */
+	public static final int LATE_RESPONSE_GRACE = 60000;
+
+	private static final String CALLBACK_PREFIX = "__gwt_callback";
+
+	/**
+	 * Requests in flight keyed by the index of their callback function.
+	 */
+	protected static HashMap<Integer, JSONRequest> callbacks = new HashMap<Integer, JSONRequest>();
+
+	/**
+	 * Requests waiting for a free slot.
+	 */
+	protected static LinkedList<JSONRequest> queued = new LinkedList<JSONRequest>();
 
 	protected static int curIndex = 0;
 
-	public native void setup(JSONRequestHandler obj, String callback) /*-{
-		window[callback] = function(data) {
-		  obj.@com.google.gdata.client.json.JSONRequestHandler::onRequestComplete(Lcom/google/gwt/core/client/JavaScriptObject;)(data);
+	private static int timeout = DEFAULT_TIMEOUT;
+
+	private static int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+
+	/** Number of requests started so far, used to age the queued ones. */
+	private static int startedCount = 0;
+
+	private String url;
+
+	private JSONRequestHandler handler;
+
+	private int index = -1;
+
+	private JavaScriptObject script;
+
+	private Timer timer;
+
+	private RequestPriority priority;
+
+	private int queuedAt;
+
+	private boolean cancelled = false;
+
+	public JSONRequest() {
+		this(RequestPriority.VISIBLE);
+	}
+
+	public JSONRequest(RequestPriority priority) {
+		this.priority = priority;
+	}
+
+	/**
+	 * Sets the number of milliseconds after which requests are abandoned and
+	 * {@link JSONRequestHandler#onRequestFailure(Throwable)} is called. A value of zero or less disables the timeout.
+	 */
+	public static void setTimeout(int millis) {
+		timeout = millis;
+	}
+
+	public static int getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Sets the number of requests that can be in flight at the same time.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is less than one.
+	 */
+	public static void setMaxInFlight(int max) {
+		if (max < 1) {
+			throw new IllegalArgumentException("At least one request must be allowed in flight");
 		}
-	}-*/;
+		maxInFlight = max;
+		startQueued();
+	}
 
-	public String reserveCallback() {
-		while (true) {
-			if (!callbacks.containsKey(new Integer(curIndex))) {
-				callbacks.put(new Integer(curIndex), null);
-				return "__gwt_callback" + curIndex++;
+	public static int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	/**
+	 * Returns the number of requests waiting for the response.
+	 */
+	public static int getInFlightCount() {
+		return callbacks.size();
+	}
+
+	/**
+	 * Returns the number of requests waiting for a free slot.
+	 */
+	public static int getQueuedCount() {
+		return queued.size();
+	}
+
+	private static void startQueued() {
+		while (!queued.isEmpty() && callbacks.size() < maxInFlight) {
+			JSONRequest next = null;
+			for (JSONRequest request : queued) {
+				if (next == null || request.getRank() < next.getRank()) {
+					next = request;
+				}
+			}
+			queued.remove(next);
+			next.start();
+		}
+	}
+
+	/**
+	 * Drops queued requests of given or lower priority. Their handlers are notified with
+	 * {@link JSONRequestCancelledException}.
+	 *
+	 * @return number of dropped requests
+	 */
+	public static int cancelQueued(RequestPriority priority) {
+		LinkedList<JSONRequest> dropped = new LinkedList<JSONRequest>();
+		for (Iterator<JSONRequest> iterator = queued.iterator(); iterator.hasNext();) {
+			JSONRequest request = iterator.next();
+			if (!request.priority.isHigherThan(priority)) {
+				iterator.remove();
+				request.cancelled = true;
+				dropped.add(request);
 			}
 		}
+		for (JSONRequest request : dropped) {
+			request.handler.onRequestFailure(new JSONRequestCancelledException(request.url));
+		}
+		return dropped.size();
+	}
+
+	public RequestPriority getPriority() {
+		return priority;
+	}
+
+	/**
+	 * Raises the priority of the request, has no effect when the request already has the same or higher priority.
+	 */
+	public void promote(RequestPriority priority) {
+		if (priority.isHigherThan(this.priority)) {
+			this.priority = priority;
+		}
+	}
+
+	/**
+	 * Returns {@code true} while the request waits for a free slot.
+	 */
+	public boolean isQueued() {
+		return queued.contains(this);
+	}
+
+	/**
+	 * Removes the request from the queue, or frees its slot when it is in flight. The handler is not notified.
+	 */
+	public void cancel() {
+		if (cancelled || handler == null) {
+			return;
+		}
+		if (queued.remove(this) || release(false)) {
+			cancelled = true;
+		}
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	private int getRank() {
+		return priority.ordinal() - (startedCount - queuedAt) / AGING_STEP;
 	}
 
 	public void get(String url, JSONRequestHandler handler) {
+		if (this.handler != null) {
+			throw new IllegalStateException("Request was already issued");
+		}
+		this.url = url;
+		this.handler = handler;
+
+		if (callbacks.size() >= maxInFlight) {
+			queuedAt = startedCount;
+			queued.add(this);
+		} else {
+			start();
+		}
+	}
+
+	private void start() {
+		startedCount++;
 		String callbackName = reserveCallback();
-		setup(handler, callbackName);
-		addScript(callbackName, url + callbackName);
+		setup(callbackName);
+		script = addScript(callbackName, url + callbackName);
+
+		if (timeout > 0) {
+			timer = new Timer() {
+
+				@Override
+				public void run() {
+					onTimeout();
+				}
+			};
+			timer.schedule(timeout);
+		}
 	}
 
-	public native void addScript(String uniqueId, String url) /*-{
+	public String reserveCallback() {
+		index = curIndex++;
+		callbacks.put(Integer.valueOf(index), this);
+		return CALLBACK_PREFIX + index;
+	}
+
+	private native void setup(String callback) /*-{
+		var request = this;
+		window[callback] = $entry(function(data) {
+		  request.@com.google.gdata.client.json.JSONRequest::onResponse(Lcom/google/gwt/core/client/JavaScriptObject;)(data);
+		});
+	}-*/;
+
+	private void onResponse(JavaScriptObject data) {
+		if (release(true)) {
+			handler.onRequestComplete(data);
+		}
+	}
+
+	private void onTimeout() {
+		timer = null;
+		if (release(false)) {
+			handler.onRequestFailure(new JSONRequestTimeoutException(url, timeout));
+		}
+	}
+
+	/**
+	 * Frees the callback slot, the global function and the script element of this request and starts the next queued
+	 * request.
+	 *
+	 * @param completed
+	 *            {@code true} if the response arrived, {@code false} if the request is abandoned and the response can
+	 *            still arrive later
+	 * @return {@code false} if the request was already released
+	 */
+	protected boolean release(boolean completed) {
+		if (callbacks.remove(Integer.valueOf(index)) == null) {
+			return false;
+		}
+		if (timer != null) {
+			timer.cancel();
+			timer = null;
+		}
+		removeScript(CALLBACK_PREFIX + index, script, completed);
+		script = null;
+		startQueued();
+		return true;
+	}
+
+	public native JavaScriptObject addScript(String uniqueId, String url) /*-{
 		var elem = document.createElement("script");
+		elem.setAttribute("id", uniqueId);
 		elem.setAttribute("language", "JavaScript");
 		elem.setAttribute("src", url);
 		document.getElementsByTagName("body")[0].appendChild(elem);
+		return elem;
+	}-*/;
+
+	private native void removeScript(String callback, JavaScriptObject elem, boolean completed) /*-{
+		var release = function() {
+			try {
+				delete window[callback];
+			} catch (e) {
+				window[callback] = undefined;
+			}
+			if (elem) {
+				elem.onload = elem.onerror = null;
+				if (elem.parentNode) {
+					elem.parentNode.removeChild(elem);
+				}
+				elem = null;
+			}
+		};
+		if (completed) {
+			release();
+			return;
+		}
+		// the script may still load, swallow the late response and release everything once the script loaded or
+		// failed, or after the grace period when the browser reports neither
+		window[callback] = function() {
+		};
+		if (elem) {
+			elem.onload = elem.onerror = release;
+		}
+		window.setTimeout(release, @com.google.gdata.client.json.JSONRequest::LATE_RESPONSE_GRACE);
 	}-*/;
-}
\ No newline at end of file
+}
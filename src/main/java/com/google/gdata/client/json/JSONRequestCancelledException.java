@@ -0,0 +1,23 @@
+package com.google.gdata.client.json;
+
+/**
+ * Signals that a {@link JSONRequest} was cancelled before its response was handled.
+ */
+public class JSONRequestCancelledException extends RuntimeException {
+
+	private static final long serialVersionUID = -6352180911726468717L;
+
+	private String url;
+
+	protected JSONRequestCancelledException() {
+	}
+
+	public JSONRequestCancelledException(String url) {
+		super("Request was cancelled: " + url);
+		this.url = url;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+}
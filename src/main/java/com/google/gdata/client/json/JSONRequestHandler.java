@@ -4,10 +4,26 @@ import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.json.client.JSONObject;
 
 public abstract class JSONRequestHandler {
-	
+
 	public void onRequestComplete(JavaScriptObject jso) {
 		onRequestComplete(new JSONObject(jso));
 	}
 
 	public abstract void onRequestComplete(JSONObject json);
-}
\ No newline at end of file
+
+	/**
+	 * Called when the request fails, e.g. with {@link JSONRequestTimeoutException} when the response did not arrive in
+	 * time. Does nothing by default.
+	 */
+	public void onRequestFailure(Throwable caught) {
+	}
+
+	/**
+	 * Called instead of {@link #onRequestComplete(JSONObject)} when a conditional request finds the resource unchanged.
+	 * Does nothing by default.
+	 * 
+	 * @see ConditionalJSONTransport
+	 */
+	public void onNotModified() {
+	}
+}
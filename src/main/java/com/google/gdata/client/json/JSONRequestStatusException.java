@@ -0,0 +1,30 @@
+package com.google.gdata.client.json;
+
+/**
+ * Signals that the server answered a request with an HTTP status other than 200.
+ */
+public class JSONRequestStatusException extends RuntimeException {
+
+	private static final long serialVersionUID = -2785061594820326184L;
+
+	private String url;
+
+	private int statusCode;
+
+	protected JSONRequestStatusException() {
+	}
+
+	public JSONRequestStatusException(String url, int statusCode, String statusText) {
+		super("Request to " + url + " failed with status " + statusCode + " " + statusText);
+		this.url = url;
+		this.statusCode = statusCode;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public int getStatusCode() {
+		return statusCode;
+	}
+}
@@ -0,0 +1,30 @@
+package com.google.gdata.client.json;
+
+/**
+ * Signals that the response of a {@link JSONRequest} did not arrive in time.
+ */
+public class JSONRequestTimeoutException extends RuntimeException {
+
+	private static final long serialVersionUID = 4416925146253358391L;
+
+	private String url;
+
+	private int timeout;
+
+	protected JSONRequestTimeoutException() {
+	}
+
+	public JSONRequestTimeoutException(String url, int timeout) {
+		super("No response received within " + timeout + " ms from " + url);
+		this.url = url;
+		this.timeout = timeout;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public int getTimeout() {
+		return timeout;
+	}
+}
@@ -0,0 +1,22 @@
+package com.google.gdata.client.json;
+
+import com.google.gdata.client.Query;
+
+/**
+ * Way of loading JSON responses of queries from the server.
+ */
+public interface JSONTransport {
+
+	/**
+	 * Adjusts the query to the response format the transport understands. Called before the URL of the query is used
+	 * and may be called more than once.
+	 */
+	void prepare(Query query);
+
+	/**
+	 * Issues the query prepared by {@link #prepare(Query)}.
+	 * 
+	 * @return handle to cancel the request
+	 */
+	RequestHandle get(Query query, JSONRequestHandler handler, RequestPriority priority);
+}
@@ -0,0 +1,15 @@
+package com.google.gdata.client.json;
+
+/**
+ * Handle of an issued request that allows to abandon it.
+ */
+public interface RequestHandle {
+
+	/**
+	 * Abandons the request. The handler of a cancelled request is not notified any more and a response that arrives
+	 * later is dropped without being processed. Cancelling a finished request has no effect.
+	 */
+	void cancel();
+
+	boolean isCancelled();
+}
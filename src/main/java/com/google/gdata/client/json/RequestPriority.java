@@ -0,0 +1,27 @@
+package com.google.gdata.client.json;
+
+/**
+ * Priority classes of requests, from the most urgent one. Requests waiting for a free slot are started in the order of
+ * their priority, see {@link JSONRequest}.
+ */
+public enum RequestPriority {
+
+	/** Requests the user explicitly asked for and waits on, e.g. a search. */
+	INTERACTIVE,
+
+	/** Requests for content that is shown on the page, e.g. a standard feed widget. */
+	VISIBLE,
+
+	/** Requests for content the user is likely to ask for next. */
+	PREFETCH,
+
+	/** Refreshes of content that is already shown. */
+	BACKGROUND;
+
+	/**
+	 * Returns {@code true} if this priority is more urgent than the other one.
+	 */
+	public boolean isHigherThan(RequestPriority other) {
+		return ordinal() < other.ordinal();
+	}
+}
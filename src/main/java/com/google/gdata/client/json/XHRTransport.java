@@ -0,0 +1,219 @@
+package com.google.gdata.client.json;
+
+import com.google.gdata.client.Query;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.RequestTimeoutException;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.json.client.JSONException;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONParser;
+
+/**
+ * Transport loading plain JSON responses by cross origin XMLHttpRequests. Responses are parsed instead of evaluated,
+ * requests are aborted when cancelled and HTTP errors are reported as {@link JSONRequestStatusException}. Conditional
+ * requests are supported by the {@code If-None-Match} header.
+ * <p>
+ * The fallback transport is used instead when the browser does not support cross origin requests. A request refused
+ * without a status, which is how a request blocked by the browser ends, is repeated by the fallback with a copy of its
+ * query, and all later requests use the fallback right away.
+ * <p>
+ * Requests are not queued by priority, the browser limits the number of connections to the server by itself.
+ */
+public class XHRTransport implements ConditionalJSONTransport {
+
+	private final JSONTransport fallback;
+
+	private boolean useFallback;
+
+	private int responseCount = 0;
+
+	private long receivedLength = 0;
+
+	private class XHRRequest implements RequestHandle, RequestCallback {
+
+		private final Query query;
+		private final String url;
+		private final JSONRequestHandler handler;
+		private final RequestPriority priority;
+		private final String etag;
+		private Request request;
+		private RequestHandle fallbackRequest;
+		private boolean cancelled = false;
+
+		XHRRequest(Query query, String etag, JSONRequestHandler handler, RequestPriority priority) {
+			this.query = query;
+			this.url = query.getUrl();
+			this.etag = etag;
+			this.handler = handler;
+			this.priority = priority;
+		}
+
+		void send() {
+			RequestBuilder builder = new RequestBuilder(RequestBuilder.GET, url);
+			builder.setTimeoutMillis(Math.max(0, JSONRequest.getTimeout()));
+			if (etag != null) {
+				builder.setHeader("If-None-Match", etag);
+			}
+			try {
+				request = builder.sendRequest(null, this);
+			} catch (RequestException e) {
+				handler.onRequestFailure(e);
+			}
+		}
+
+		@Override
+		public void onResponseReceived(Request request, Response response) {
+			this.request = null;
+			if (cancelled) {
+				return;
+			}
+
+			int status = response.getStatusCode();
+			if (status == 0) {
+				// blocked by the browser, requests issued while this one is repeated must not be blocked too
+				useFallback = true;
+				// the fallback prepares the query for its own format, the query of the caller is left intact
+				fallbackRequest = fallback.get(query.copy(), handler, priority);
+				return;
+			}
+
+			String text = response.getText();
+			responseCount++;
+			if (text != null) {
+				receivedLength += text.length();
+			}
+
+			if (status == Response.SC_NOT_MODIFIED && etag != null) {
+				handler.onNotModified();
+				return;
+			}
+
+			if (status != Response.SC_OK) {
+				handler.onRequestFailure(new JSONRequestStatusException(url, status, response.getStatusText()));
+				return;
+			}
+
+			JSONObject json;
+			try {
+				json = JSONParser.parseStrict(text).isObject();
+			} catch (RuntimeException e) {
+				handler.onRequestFailure(e);
+				return;
+			}
+			if (json == null) {
+				handler.onRequestFailure(new JSONException("Response of " + url + " is not a JSON object"));
+				return;
+			}
+			handler.onRequestComplete(json);
+		}
+
+		@Override
+		public void onError(Request request, Throwable exception) {
+			this.request = null;
+			if (cancelled) {
+				return;
+			}
+			if (exception instanceof RequestTimeoutException) {
+				handler.onRequestFailure(new JSONRequestTimeoutException(url, JSONRequest.getTimeout()));
+			} else {
+				handler.onRequestFailure(exception);
+			}
+		}
+
+		@Override
+		public void cancel() {
+			if (cancelled) {
+				return;
+			}
+			if (fallbackRequest != null) {
+				fallbackRequest.cancel();
+				cancelled = fallbackRequest.isCancelled();
+			} else if (request != null && request.isPending()) {
+				request.cancel();
+				request = null;
+				cancelled = true;
+			}
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return cancelled;
+		}
+	}
+
+	public XHRTransport() {
+		this(new JSONPTransport());
+	}
+
+	/**
+	 * @param fallback
+	 *            transport used when cross origin requests are not possible
+	 */
+	public XHRTransport(JSONTransport fallback) {
+		this.fallback = fallback;
+		this.useFallback = !isSupported();
+	}
+
+	/**
+	 * Returns {@code true} if the browser supports cross origin XMLHttpRequests.
+	 */
+	public static native boolean isSupported() /*-{
+		return typeof XMLHttpRequest != "undefined" && "withCredentials" in new XMLHttpRequest();
+	}-*/;
+
+	/**
+	 * Returns {@code true} if requests are issued by the fallback transport.
+	 */
+	public boolean isUsingFallback() {
+		return useFallback;
+	}
+
+	/**
+	 * Returns number of responses received, including the failed ones.
+	 */
+	public int getResponseCount() {
+		return responseCount;
+	}
+
+	/**
+	 * Returns number of characters received in the bodies of all responses.
+	 */
+	public long getReceivedLength() {
+		return receivedLength;
+	}
+
+	@Override
+	public void prepare(Query query) {
+		if (useFallback) {
+			fallback.prepare(query);
+		} else {
+			query.setCallbackFunction(false);
+		}
+	}
+
+	@Override
+	public RequestHandle get(Query query, JSONRequestHandler handler, RequestPriority priority) {
+		return getIfNoneMatch(query, null, handler, priority);
+	}
+
+	/**
+	 * The request is issued unconditionally when the fallback transport is used and does not support conditional
+	 * requests.
+	 */
+	@Override
+	public RequestHandle getIfNoneMatch(Query query, String etag, JSONRequestHandler handler, RequestPriority priority) {
+		if (useFallback) {
+			if (etag != null && fallback instanceof ConditionalJSONTransport) {
+				return ((ConditionalJSONTransport) fallback).getIfNoneMatch(query, etag, handler, priority);
+			}
+			return fallback.get(query, handler, priority);
+		}
+		prepare(query);
+		XHRRequest request = new XHRRequest(query, etag, handler, priority);
+		request.send();
+		return request;
+	}
+}
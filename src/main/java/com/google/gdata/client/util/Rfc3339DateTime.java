@@ -0,0 +1,185 @@
+package com.google.gdata.client.util;
+
+import java.util.Date;
+
+/**
+ * Parser and formatter of RFC 3339 timestamps as used by GData, e.g. {@code 2010-01-07T19:58:42.949Z}. Works on the
+ * characters directly, without pattern matching nor calendar objects. Timestamps are formatted in UTC with
+ * milliseconds.
+ */
+public final class Rfc3339DateTime {
+
+	private static final long MILLIS_PER_MINUTE = 60 * 1000;
+
+	private static final long MILLIS_PER_DAY = 24 * 60 * MILLIS_PER_MINUTE;
+
+	private Rfc3339DateTime() {
+	}
+
+	/**
+	 * Parses a timestamp {@code yyyy-MM-ddTHH:mm:ss[.fraction][Z|+hh:mm|-hh:mm]} or a date {@code yyyy-MM-dd}. Values
+	 * without time zone are taken as UTC.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the value is not a valid timestamp.
+	 */
+	public static Date parse(String value) {
+		int length = value.length();
+		if (length < 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+			throw invalid(value);
+		}
+		int year = digits(value, 0, 4);
+		int month = digits(value, 5, 2);
+		int day = digits(value, 8, 2);
+		if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+			throw invalid(value);
+		}
+		long millis = daysFromCivil(year, month, day) * MILLIS_PER_DAY;
+		if (length == 10) {
+			return new Date(millis);
+		}
+
+		char separator = value.charAt(10);
+		if ((separator != 'T' && separator != 't' && separator != ' ') || length < 19 || value.charAt(13) != ':'
+				|| value.charAt(16) != ':') {
+			throw invalid(value);
+		}
+		int hour = digits(value, 11, 2);
+		int minute = digits(value, 14, 2);
+		int second = digits(value, 17, 2);
+		if (hour > 23 || minute > 59 || second > 60) {
+			throw invalid(value);
+		}
+		millis += ((hour * 60L + minute) * 60 + second) * 1000;
+
+		int position = 19;
+		if (position < length && value.charAt(position) == '.') {
+			position++;
+			int start = position;
+			int fraction = 0;
+			while (position < length && isDigit(value.charAt(position))) {
+				// only milliseconds are kept
+				if (position - start < 3) {
+					fraction = fraction * 10 + (value.charAt(position) - '0');
+				}
+				position++;
+			}
+			if (position == start) {
+				throw invalid(value);
+			}
+			for (int i = position - start; i < 3; i++) {
+				fraction *= 10;
+			}
+			millis += fraction;
+		}
+
+		if (position < length) {
+			char zone = value.charAt(position);
+			if (zone == 'Z' || zone == 'z') {
+				position++;
+			} else if (zone == '+' || zone == '-') {
+				int offsetHours = digits(value, position + 1, 2);
+				position += 3;
+				if (position < length && value.charAt(position) == ':') {
+					position++;
+				}
+				int offsetMinutes = digits(value, position, 2);
+				position += 2;
+				long offset = (offsetHours * 60L + offsetMinutes) * MILLIS_PER_MINUTE;
+				millis += zone == '+' ? -offset : offset;
+			}
+		}
+		if (position != length) {
+			throw invalid(value);
+		}
+		return new Date(millis);
+	}
+
+	/**
+	 * Formats the date as UTC timestamp {@code yyyy-MM-ddTHH:mm:ss.SSSZ}.
+	 */
+	public static String format(Date date) {
+		long millis = date.getTime();
+		long days = millis / MILLIS_PER_DAY;
+		int millisOfDay = (int) (millis - days * MILLIS_PER_DAY);
+		if (millisOfDay < 0) {
+			days--;
+			millisOfDay += MILLIS_PER_DAY;
+		}
+
+		// civil date of the day count, see daysFromCivil
+		int z = (int) days + 719468;
+		int era = (z >= 0 ? z : z - 146096) / 146097;
+		int dayOfEra = z - era * 146097;
+		int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		int monthIndex = (5 * dayOfYear + 2) / 153;
+		int day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+		int month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+		int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+		StringBuilder builder = new StringBuilder(24);
+		append(builder, year, 4).append('-');
+		append(builder, month, 2).append('-');
+		append(builder, day, 2).append('T');
+		append(builder, millisOfDay / 3600000, 2).append(':');
+		append(builder, millisOfDay / 60000 % 60, 2).append(':');
+		append(builder, millisOfDay / 1000 % 60, 2).append('.');
+		append(builder, millisOfDay % 1000, 3).append('Z');
+		return builder.toString();
+	}
+
+	/**
+	 * Returns the number of days since 1970-01-01 of the proleptic Gregorian date.
+	 */
+	private static long daysFromCivil(int year, int month, int day) {
+		year -= month <= 2 ? 1 : 0;
+		int era = (year >= 0 ? year : year - 399) / 400;
+		int yearOfEra = year - era * 400;
+		int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097L + dayOfEra - 719468;
+	}
+
+	/**
+	 * Returns the number of days of the month of the proleptic Gregorian calendar.
+	 */
+	private static int daysInMonth(int year, int month) {
+		if (month == 2) {
+			return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+		}
+		return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+	}
+
+	private static StringBuilder append(StringBuilder builder, int value, int width) {
+		for (int limit = 10, i = 1; i < width; i++, limit *= 10) {
+			if (value < limit) {
+				builder.append('0');
+			}
+		}
+		return builder.append(value);
+	}
+
+	private static int digits(String value, int start, int count) {
+		if (start + count > value.length()) {
+			throw invalid(value);
+		}
+		int result = 0;
+		for (int i = start; i < start + count; i++) {
+			char c = value.charAt(i);
+			if (!isDigit(c)) {
+				throw invalid(value);
+			}
+			result = result * 10 + (c - '0');
+		}
+		return result;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static IllegalArgumentException invalid(String value) {
+		return new IllegalArgumentException("Invalid RFC 3339 timestamp: " + value);
+	}
+}
@@ -0,0 +1,143 @@
+package com.google.gdata.client.youtube;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gdata.client.Query;
+
+/**
+ * Partial response projection derived from the {@link VideoEntryProperty properties} of video entries the consumers
+ * read. Only the declared properties of entries are requested, together with the feed paging information and the feed
+ * ETag. The fields expression does not depend on the order nor on repetitions of the declared properties, so equal
+ * projections produce equal query URLs and share the cached feeds.
+ */
+public class FieldsProjection {
+
+	/** Feed elements needed regardless of the projected entry properties. */
+	private static final String[] FEED_PATHS = { "@gd:etag", "openSearch:totalResults", "openSearch:startIndex",
+			"openSearch:itemsPerPage" };
+
+	private static final String ENTRY = "entry";
+
+	/**
+	 * Element of the projection with its selected children, sorted by name.
+	 */
+	private static class Node {
+
+		private final Map<String, Node> children = new TreeMap<String, Node>();
+
+		void add(String path) {
+			Node node = this;
+			for (String segment : path.split("/")) {
+				Node child = node.children.get(segment);
+				if (child == null) {
+					child = new Node();
+					node.children.put(segment, child);
+				}
+				node = child;
+			}
+		}
+
+		void append(StringBuilder fields) {
+			boolean first = true;
+			for (Map.Entry<String, Node> child : children.entrySet()) {
+				if (!first) {
+					fields.append(',');
+				}
+				first = false;
+				fields.append(child.getKey());
+				if (!child.getValue().children.isEmpty()) {
+					fields.append('(');
+					child.getValue().append(fields);
+					fields.append(')');
+				}
+			}
+		}
+	}
+
+	private final Node entry = new Node();
+
+	private String fields;
+
+	public FieldsProjection(VideoEntryProperty... properties) {
+		add(properties);
+	}
+
+	/**
+	 * Adds properties read by another consumer of the same feed.
+	 * 
+	 * @return this projection
+	 */
+	public FieldsProjection add(VideoEntryProperty... properties) {
+		for (VideoEntryProperty property : properties) {
+			entry.add(property.getPath());
+		}
+		fields = null;
+		return this;
+	}
+
+	/**
+	 * Adds properties of another projection.
+	 * 
+	 * @return this projection
+	 */
+	public FieldsProjection add(FieldsProjection projection) {
+		merge(entry, projection.entry);
+		fields = null;
+		return this;
+	}
+
+	private static void merge(Node target, Node source) {
+		for (Map.Entry<String, Node> child : source.children.entrySet()) {
+			Node node = target.children.get(child.getKey());
+			if (node == null) {
+				node = new Node();
+				target.children.put(child.getKey(), node);
+			}
+			merge(node, child.getValue());
+		}
+	}
+
+	/**
+	 * Returns the value of the "fields" parameter selecting the projected properties.
+	 */
+	public String getFields() {
+		if (fields == null) {
+			Node feed = new Node();
+			for (String path : FEED_PATHS) {
+				feed.add(path);
+			}
+			if (entry.children.isEmpty()) {
+				feed.add(ENTRY);
+			} else {
+				feed.children.put(ENTRY, entry);
+			}
+			StringBuilder builder = new StringBuilder();
+			feed.append(builder);
+			fields = builder.toString();
+		}
+		return fields;
+	}
+
+	/**
+	 * Sets the "fields" parameter of the query.
+	 */
+	public void apply(Query query) {
+		query.setFields(getFields());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof FieldsProjection && getFields().equals(((FieldsProjection) obj).getFields());
+	}
+
+	@Override
+	public int hashCode() {
+		return getFields().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return getFields();
+	}
+}
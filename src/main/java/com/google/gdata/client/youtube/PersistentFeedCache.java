@@ -0,0 +1,375 @@
+package com.google.gdata.client.youtube;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gdata.client.GoogleJsonizerRegistry;
+import com.google.gdata.client.deserialize.BaseFeedDeserializer;
+import com.google.gdata.client.deserialize.JsoncVideoFeedDeserializer;
+import com.google.gdata.client.deserialize.VideoFeedDeserializer;
+import com.google.gdata.data.youtube.VideoEntry;
+import com.google.gdata.data.youtube.VideoFeed;
+import com.google.gwt.core.client.JavaScriptException;
+import com.google.gwt.json.client.JSONArray;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONParser;
+import com.google.gwt.json.client.JSONString;
+import com.google.gwt.json.client.JSONValue;
+import com.google.gwt.storage.client.Storage;
+
+/**
+ * Feed responses kept in the browser local storage, so they survive page reloads. Responses are stored as compact
+ * JSON payloads keyed by the query URL, see {@link #toPayload(JSONObject)}. The number of stored responses and their
+ * total length are bounded, the least recently used response is evicted first.
+ * <p>
+ * When the browser does not support local storage the cache stays empty.
+ */
+public class PersistentFeedCache {
+
+	public static final int DEFAULT_MAX_ENTRIES = 20;
+
+	/** Default limit of the total length of the stored payloads in characters. */
+	public static final int DEFAULT_MAX_SIZE = 1024 * 1024;
+
+	private static final String KEY_PREFIX = "gdata.feed:";
+
+	private static final String INDEX_KEY = "gdata.feeds";
+
+	/** Prefix of the keys of XML namespace declarations in GData JSON. */
+	private static final String NAMESPACE_PREFIX = "xmlns";
+
+	private final Storage storage;
+
+	private final int maxEntries;
+
+	private final int maxSize;
+
+	/** Length of the stored payloads keyed by URL, in access order. */
+	private LinkedHashMap<String, Integer> index;
+
+	private int size = 0;
+
+	/**
+	 * Creates cache backed by the local storage of the browser.
+	 */
+	public PersistentFeedCache() {
+		this(Storage.getLocalStorageIfSupported(), DEFAULT_MAX_ENTRIES, DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * @param storage
+	 *            storage to keep payloads in, {@code null} when storage is not supported
+	 * @param maxEntries
+	 *            maximum number of stored payloads
+	 * @param maxSize
+	 *            maximum total length of stored payloads in characters
+	 */
+	public PersistentFeedCache(Storage storage, int maxEntries, int maxSize) {
+		if (maxEntries < 1 || maxSize < 1) {
+			throw new IllegalArgumentException("Cache must hold at least one feed");
+		}
+		this.storage = storage;
+		this.maxEntries = maxEntries;
+		this.maxSize = maxSize;
+	}
+
+	public boolean isSupported() {
+		return storage != null;
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Returns the payload stored for the URL or {@code null}.
+	 */
+	public String get(String url) {
+		if (!isSupported() || ensureIndex().get(url) == null) {
+			return null;
+		}
+		String payload = storage.getItem(KEY_PREFIX + url);
+		if (payload == null) {
+			// removed behind our back
+			remove(url);
+			return null;
+		}
+		storeIndex();
+		return payload;
+	}
+
+	/**
+	 * Returns the feed deserialized from the payload stored for the URL or {@code null}. Payloads that cannot be
+	 * deserialized are removed.
+	 */
+	public VideoFeed getFeed(String url) {
+		String payload = get(url);
+		if (payload == null) {
+			return null;
+		}
+		VideoFeed feed = toFeed(payload);
+		if (feed == null) {
+			remove(url);
+		}
+		return feed;
+	}
+
+	/**
+	 * Deserializes the feed from stored payload, returns {@code null} when the payload is not valid.
+	 */
+	public static VideoFeed toFeed(String payload) {
+		try {
+			JSONValue json = JSONParser.parseStrict(payload);
+			if (json.isObject() == null) {
+				return null;
+			}
+			return GoogleJsonizerRegistry.getJsonizer().fromJson(json.isObject(), VideoFeed.class);
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the payload to store for the response. The XML namespace declarations GData repeats on the feed and on
+	 * every entry are left out, nothing reads them back and they make up a large part of the response. The response
+	 * itself is not modified.
+	 */
+	public static String toPayload(JSONObject json) {
+		return compact(json).toString();
+	}
+
+	/**
+	 * Returns the stored payload with the entries of the merged feed, taken from the response with the changed entries
+	 * or from the payload itself, or {@code null} when the payload is {@code null} or does not hold all of them.
+	 *
+	 * @see YouTubeJSONRequestHandler#onRequestMerged(JSONObject, VideoFeed)
+	 */
+	public static String merge(String payload, JSONObject changes, VideoFeed merged) {
+		if (payload == null || merged.getEntries() == null) {
+			return null;
+		}
+		JSONObject stored;
+		try {
+			stored = JSONParser.parseStrict(payload).isObject();
+		} catch (RuntimeException e) {
+			return null;
+		}
+		JSONObject storedContainer = stored == null ? null : getEntryContainer(stored);
+		JSONObject changesContainer = getEntryContainer(changes);
+		if (storedContainer == null || changesContainer == null) {
+			return null;
+		}
+
+		String entryKey = getEntryKey(stored);
+		Map<String, JSONValue> entries = new HashMap<String, JSONValue>();
+		putEntries(entries, storedContainer.get(entryKey));
+		putEntries(entries, compact(changesContainer).isObject().get(entryKey));
+
+		JSONArray mergedEntries = new JSONArray();
+		int i = 0;
+		for (VideoEntry entry : merged.getEntries()) {
+			JSONValue json = entries.get(entry.getId());
+			if (json == null) {
+				return null;
+			}
+			mergedEntries.set(i++, json);
+		}
+		storedContainer.put(entryKey, mergedEntries);
+		return stored.toString();
+	}
+
+	/**
+	 * Returns the object listing the entries, the feed of GData JSON or the data of JSON-C.
+	 */
+	private static JSONObject getEntryContainer(JSONObject json) {
+		JSONValue container = json.get(JsoncVideoFeedDeserializer.isJsonc(json)
+				? JsoncVideoFeedDeserializer.DATA_JSON_KEY : VideoFeedDeserializer.FEED_JSON_KEY);
+		return container == null ? null : container.isObject();
+	}
+
+	private static String getEntryKey(JSONObject json) {
+		return JsoncVideoFeedDeserializer.isJsonc(json) ? JsoncVideoFeedDeserializer.ITEMS_JSON_KEY
+				: BaseFeedDeserializer.ENTRY_JSON_KEY;
+	}
+
+	/**
+	 * Puts the entries keyed by the ids of the deserialized entries.
+	 */
+	private static void putEntries(Map<String, JSONValue> entries, JSONValue value) {
+		JSONArray array = value == null ? null : value.isArray();
+		if (array == null) {
+			return;
+		}
+		for (int i = 0; i < array.size(); i++) {
+			JSONObject entry = array.get(i).isObject();
+			JSONValue id = entry == null ? null : entry.get("id");
+			if (id == null) {
+				continue;
+			}
+			if (id.isString() != null) {
+				// JSON-C item
+				entries.put(JsoncVideoFeedDeserializer.ENTRY_ID_PREFIX + id.isString().stringValue(), entry);
+			} else if (id.isObject() != null && id.isObject().get("$t") != null
+					&& id.isObject().get("$t").isString() != null) {
+				entries.put(id.isObject().get("$t").isString().stringValue(), entry);
+			}
+		}
+	}
+
+	private static JSONValue compact(JSONValue value) {
+		JSONObject object = value.isObject();
+		if (object != null) {
+			JSONObject compacted = new JSONObject();
+			for (String key : object.keySet()) {
+				if (!key.startsWith(NAMESPACE_PREFIX)) {
+					compacted.put(key, compact(object.get(key)));
+				}
+			}
+			return compacted;
+		}
+		JSONArray array = value.isArray();
+		if (array != null) {
+			JSONArray compacted = new JSONArray();
+			for (int i = 0; i < array.size(); i++) {
+				compacted.set(i, compact(array.get(i)));
+			}
+			return compacted;
+		}
+		return value;
+	}
+
+	/**
+	 * Stores the payload, evicting the least recently used payloads to stay within limits. Payloads larger than the
+	 * size limit are not stored.
+	 */
+	public void put(String url, String payload) {
+		if (!isSupported()) {
+			return;
+		}
+		remove(url);
+		if (payload.length() > maxSize) {
+			return;
+		}
+		LinkedHashMap<String, Integer> index = ensureIndex();
+		while (!index.isEmpty() && (index.size() >= maxEntries || size + payload.length() > maxSize)) {
+			evictEldest();
+		}
+		while (true) {
+			try {
+				storage.setItem(KEY_PREFIX + url, payload);
+				break;
+			} catch (JavaScriptException e) {
+				// storage quota exceeded
+				if (index.isEmpty()) {
+					return;
+				}
+				evictEldest();
+			}
+		}
+		index.put(url, Integer.valueOf(payload.length()));
+		size += payload.length();
+		storeIndex();
+	}
+
+	public void remove(String url) {
+		if (!isSupported()) {
+			return;
+		}
+		Integer length = ensureIndex().remove(url);
+		if (length != null) {
+			size -= length.intValue();
+			storage.removeItem(KEY_PREFIX + url);
+			storeIndex();
+		}
+	}
+
+	public void clear() {
+		if (!isSupported()) {
+			return;
+		}
+		for (String url : ensureIndex().keySet()) {
+			storage.removeItem(KEY_PREFIX + url);
+		}
+		index.clear();
+		size = 0;
+		storage.removeItem(INDEX_KEY);
+	}
+
+	/**
+	 * Returns number of stored payloads.
+	 */
+	public int size() {
+		return isSupported() ? ensureIndex().size() : 0;
+	}
+
+	/**
+	 * Returns total length of stored payloads in characters.
+	 */
+	public int getStoredSize() {
+		if (isSupported()) {
+			ensureIndex();
+		}
+		return size;
+	}
+
+	private void evictEldest() {
+		Iterator<String> iterator = index.keySet().iterator();
+		String url = iterator.next();
+		size -= index.get(url).intValue();
+		iterator.remove();
+		storage.removeItem(KEY_PREFIX + url);
+	}
+
+	private LinkedHashMap<String, Integer> ensureIndex() {
+		if (index != null) {
+			return index;
+		}
+		index = new LinkedHashMap<String, Integer>(16, 0.75f, true);
+		String stored = storage.getItem(INDEX_KEY);
+		if (stored == null) {
+			return index;
+		}
+		JSONArray urls = null;
+		try {
+			JSONValue json = JSONParser.parseStrict(stored);
+			urls = json.isArray();
+		} catch (RuntimeException e) {
+			// corrupted index, start over
+		}
+		if (urls == null) {
+			storage.removeItem(INDEX_KEY);
+			return index;
+		}
+		for (int i = 0; i < urls.size(); i++) {
+			JSONString url = urls.get(i).isString();
+			if (url == null) {
+				continue;
+			}
+			String payload = storage.getItem(KEY_PREFIX + url.stringValue());
+			if (payload != null) {
+				index.put(url.stringValue(), Integer.valueOf(payload.length()));
+				size += payload.length();
+			}
+		}
+		return index;
+	}
+
+	private void storeIndex() {
+		JSONArray urls = new JSONArray();
+		int i = 0;
+		for (String url : index.keySet()) {
+			urls.set(i++, new JSONString(url));
+		}
+		try {
+			storage.setItem(INDEX_KEY, urls.toString());
+		} catch (JavaScriptException e) {
+			// payloads without index are dropped on the next load
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.google.gdata.client.youtube;
+
+import com.google.gdata.data.youtube.VideoEntry;
+
+/**
+ * Properties of {@link VideoEntry} a component can declare it reads, together with the path of the element holding
+ * them in the feed. Path segments are separated by {@code /}, attributes are prefixed by {@code @}.
+ * 
+ * @see FieldsProjection
+ */
+public enum VideoEntryProperty {
+
+	ID("id"),
+	TITLE("title"),
+	PUBLISHED("published"),
+	UPDATED("updated"),
+	AUTHORS("author/name"),
+	CATEGORIES("category"),
+	LINKS("link"),
+	VIDEO_ID("media:group/yt:videoid"),
+	DESCRIPTION("media:group/media:description"),
+	THUMBNAILS("media:group/media:thumbnail"),
+	DURATION("media:group/yt:duration"),
+	CONTENT("media:group/media:content"),
+	VIEW_COUNT("yt:statistics/@viewCount"),
+	FAVORITE_COUNT("yt:statistics/@favoriteCount"),
+	RATING("gd:rating");
+
+	private String path;
+
+	private VideoEntryProperty(String path) {
+		this.path = path;
+	}
+
+	public String getPath() {
+		return path;
+	}
+}
@@ -0,0 +1,216 @@
+package com.google.gdata.client.youtube;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gdata.client.Query;
+import com.google.gdata.client.deserialize.StringPool;
+import com.google.gdata.data.youtube.VideoFeed;
+
+/**
+ * In-memory cache of deserialized {@link VideoFeed}s keyed by the query. Queries equal by {@link Query#equals(Object)}
+ * share the cached feed, the cache keeps its own copy of the query as the key. The number of cached feeds is bounded,
+ * the least recently used feed is evicted first. Every feed expires after a time to live that depends on the kind of
+ * the query: standard feeds change slowly, search results are kept for a shorter time. Expired feeds are kept until
+ * evicted, so they can be revalidated instead of downloaded again.
+ * <p>
+ * The cache can canonicalize the values repeated in the entries of the cached feeds by a {@link StringPool}, the pool
+ * is cleared together with the cache.
+ */
+public class VideoFeedCache {
+
+	public static final int DEFAULT_MAX_ENTRIES = 50;
+
+	/** Default time to live of standard feeds, 10 minutes. */
+	public static final long DEFAULT_STANDARD_FEED_TTL = 10 * 60 * 1000;
+
+	/** Default time to live of full text search results, 2 minutes. */
+	public static final long DEFAULT_SEARCH_TTL = 2 * 60 * 1000;
+
+	private static class CachedFeed {
+
+		private final Query query;
+		private final VideoFeed feed;
+		private final long expires;
+
+		CachedFeed(Query query, VideoFeed feed, long expires) {
+			this.query = query;
+			this.feed = feed;
+			this.expires = expires;
+		}
+	}
+
+	private final int maxEntries;
+
+	private long standardFeedTtl = DEFAULT_STANDARD_FEED_TTL;
+
+	private long searchTtl = DEFAULT_SEARCH_TTL;
+
+	private final LinkedHashMap<Query, CachedFeed> feeds;
+
+	private StringPool stringPool;
+
+	private int hitCount = 0;
+
+	private int missCount = 0;
+
+	public VideoFeedCache() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * @param maxEntries
+	 *            maximum number of cached feeds
+	 * @throws IllegalArgumentException
+	 *             if the value is less than one.
+	 */
+	public VideoFeedCache(final int maxEntries) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("Cache must hold at least one feed");
+		}
+		this.maxEntries = maxEntries;
+		// insertion order; hits move the feed to the end explicitly so that lookups which must not affect the eviction
+		// order are plain map reads
+		this.feeds = new LinkedHashMap<Query, CachedFeed>(16, 0.75f, false) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Query, CachedFeed> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public long getStandardFeedTtl() {
+		return standardFeedTtl;
+	}
+
+	/**
+	 * Sets time to live in milliseconds of feeds without full text query.
+	 */
+	public void setStandardFeedTtl(long standardFeedTtl) {
+		this.standardFeedTtl = standardFeedTtl;
+	}
+
+	public long getSearchTtl() {
+		return searchTtl;
+	}
+
+	/**
+	 * Sets time to live in milliseconds of full text search results.
+	 */
+	public void setSearchTtl(long searchTtl) {
+		this.searchTtl = searchTtl;
+	}
+
+	public StringPool getStringPool() {
+		return stringPool;
+	}
+
+	/**
+	 * Sets the pool canonicalizing the repeated values of the entries of the feeds put to the cache, {@code null}
+	 * disables pooling. Pooling is disabled by default.
+	 */
+	public void setStringPool(StringPool stringPool) {
+		this.stringPool = stringPool;
+	}
+
+	/**
+	 * Returns the time to live that applies to the results of the query.
+	 */
+	public long getTtl(Query query) {
+		return query.getFullTextQuery() != null ? searchTtl : standardFeedTtl;
+	}
+
+	/**
+	 * Returns the cached feed or {@code null} when the feed is not cached or has already expired.
+	 */
+	public VideoFeed get(Query query) {
+		CachedFeed cached = feeds.get(query);
+		if (cached != null && cached.expires <= System.currentTimeMillis()) {
+			cached = null;
+		}
+		if (cached == null) {
+			missCount++;
+			return null;
+		}
+		hitCount++;
+		feeds.remove(query);
+		feeds.put(cached.query, cached);
+		return cached.feed;
+	}
+
+	/**
+	 * Returns {@code true} if a feed that has not expired yet is cached for the query. Does not affect hit statistics
+	 * nor the eviction order.
+	 */
+	public boolean contains(Query query) {
+		CachedFeed cached = feeds.get(query);
+		return cached != null && cached.expires > System.currentTimeMillis();
+	}
+
+	/**
+	 * Returns the feed cached for the query if it has already expired, {@code null} otherwise. Does not affect hit
+	 * statistics nor the eviction order.
+	 */
+	public VideoFeed getExpired(Query query) {
+		CachedFeed cached = feeds.get(query);
+		return cached != null && cached.expires <= System.currentTimeMillis() ? cached.feed : null;
+	}
+
+	public void put(Query query, VideoFeed feed) {
+		put(query, feed, getTtl(query));
+	}
+
+	/**
+	 * Caches the feed for given number of milliseconds. Feeds with zero or negative time to live are not cached.
+	 */
+	public void put(Query query, VideoFeed feed, long ttl) {
+		if (feed == null || ttl <= 0) {
+			return;
+		}
+		if (stringPool != null && feed.getEntries() != null) {
+			stringPool.intern(feed.getEntries());
+		}
+		// re-inserting moves an existing query to the most recently used end
+		feeds.remove(query);
+		Query key = query.copy();
+		feeds.put(key, new CachedFeed(key, feed, System.currentTimeMillis() + ttl));
+	}
+
+	public void remove(Query query) {
+		feeds.remove(query);
+	}
+
+	public void clear() {
+		feeds.clear();
+		if (stringPool != null) {
+			stringPool.clear();
+		}
+	}
+
+	/**
+	 * Returns number of cached feeds, including the expired ones.
+	 */
+	public int size() {
+		return feeds.size();
+	}
+
+	public int getHitCount() {
+		return hitCount;
+	}
+
+	public int getMissCount() {
+		return missCount;
+	}
+
+	public void resetStatistics() {
+		hitCount = 0;
+		missCount = 0;
+	}
+}
@@ -0,0 +1,26 @@
+package com.google.gdata.client.youtube;
+
+import com.google.gdata.client.json.JSONRequestHandler;
+import com.google.gdata.client.youtube.overlay.VideoFeedOverlay;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.json.client.JSONObject;
+
+/**
+ * Handler receiving video feeds as {@link VideoFeedOverlay} views of the response, for read-only listings. The
+ * response is not deserialized into {@link com.google.gdata.data.youtube.VideoFeed}, so feeds handled this way are
+ * neither cached nor shared with concurrent {@link YouTubeJSONRequestHandler} queries.
+ */
+public abstract class VideoFeedOverlayRequestHandler extends JSONRequestHandler {
+
+	@Override
+	public void onRequestComplete(JavaScriptObject jso) {
+		onRequestComplete(jso.<VideoFeedOverlay> cast());
+	}
+
+	@Override
+	public void onRequestComplete(JSONObject json) {
+		onRequestComplete(json.getJavaScriptObject().<VideoFeedOverlay> cast());
+	}
+
+	public abstract void onRequestComplete(VideoFeedOverlay feed);
+}
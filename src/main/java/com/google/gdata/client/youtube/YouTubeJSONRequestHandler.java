@@ -2,23 +2,43 @@ package com.google.gdata.client.youtube;
 
 import sk.seges.acris.json.client.IJsonizer;
 
-import com.google.gdata.client.GoogleJsonizerBuilder;
-import com.google.gdata.client.deserialize.SourceDeserializer;
+import com.google.gdata.client.GoogleJsonizerRegistry;
 import com.google.gdata.client.json.JSONRequestHandler;
-import com.google.gdata.data.Source;
 import com.google.gdata.data.youtube.VideoFeed;
-import com.google.gwt.core.client.GWT;
 import com.google.gwt.json.client.JSONObject;
 
 public abstract class YouTubeJSONRequestHandler extends JSONRequestHandler {
 
+	/**
+	 * Deserializes the response and passes it to {@link #onRequestComplete(JSONObject, VideoFeed)}. Not called when the
+	 * handler is given to {@link YouTubeService}, the service deserializes the feed once for all handlers waiting for
+	 * it.
+	 */
 	@Override
 	public void onRequestComplete(JSONObject json) {
-		GoogleJsonizerBuilder jsonizerBuilder = new GoogleJsonizerBuilder();
-		jsonizerBuilder.registerDeserializer(Source.class, new SourceDeserializer());
-		IJsonizer jsonnizer = jsonizerBuilder.create();
+		onRequestComplete(json, deserialize(json));
+	}
+
+	protected VideoFeed deserialize(JSONObject json) {
+		IJsonizer jsonnizer = GoogleJsonizerRegistry.getJsonizer();
 //		GWT.log(json.toString(), null);
-		VideoFeed videoFeed = jsonnizer.fromJson(json, VideoFeed.class);
+		return jsonnizer.fromJson(json, VideoFeed.class);
+	}
+
+	/**
+	 * Called with the response and the feed deserialized from it. Delegates to {@link #onRequestComplete(VideoFeed)}
+	 * by default.
+	 */
+	public void onRequestComplete(JSONObject json, VideoFeed videoFeed) {
+		onRequestComplete(videoFeed);
+	}
+
+	/**
+	 * Called instead of {@link #onRequestComplete(JSONObject, VideoFeed)} when {@link YouTubeService} refreshed an
+	 * expired cached feed by a response listing only the entries updated since the feed was loaded. The feed holds the
+	 * changed entries merged into the cached ones. Delegates to {@link #onRequestComplete(VideoFeed)} by default.
+	 */
+	public void onRequestMerged(JSONObject changes, VideoFeed videoFeed) {
 		onRequestComplete(videoFeed);
 	}
 
@@ -1,7 +1,17 @@
 package com.google.gdata.client.youtube;
 
+import java.util.List;
+
+import com.google.gdata.client.Query;
 import com.google.gdata.client.QueryPage;
+import com.google.gdata.client.json.RequestHandle;
+import com.google.gdata.client.json.RequestPriority;
+import com.google.gdata.client.youtube.overlay.VideoFeedOverlay;
+import com.google.gdata.data.youtube.VideoEntry;
 import com.google.gdata.data.youtube.VideoFeed;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+import com.google.gwt.json.client.JSONObject;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 
 public class YouTubeManager {
@@ -11,30 +21,205 @@ public class YouTubeManager {
 	private static final String TOP_RATED_FEED_URL = STANDARD_FEED_URL + "top_rated";
 	private static final String MOST_RECENT_FEED_URL = STANDARD_FEED_URL + "most_recent";
 
+	private static PersistentFeedCache defaultPersistentFeedCache = null;
+
+	private PersistentFeedCache persistentFeedCache = defaultPersistentFeedCache;
+
+	private FieldsProjection projection;
+
+	private boolean compactJson = false;
+
 	public YouTubeManager() {
 	}
 
-	public void retrieveVideo(String textQuery, AsyncCallback<VideoFeed> callback) {
-		retrieveVideos(VIDEO_FEED_URL, textQuery, null, callback);
+	/**
+	 * Returns the persistent cache shared by managers that were not given their own one.
+	 */
+	public static PersistentFeedCache getDefaultPersistentFeedCache() {
+		return defaultPersistentFeedCache;
+	}
+
+	/**
+	 * Sets the persistent cache used by managers created afterwards. There is none by default, feeds are stored in the
+	 * browser only when the application opts in.
+	 */
+	public static void setDefaultPersistentFeedCache(PersistentFeedCache persistentFeedCache) {
+		defaultPersistentFeedCache = persistentFeedCache;
+	}
+
+	public PersistentFeedCache getPersistentFeedCache() {
+		return persistentFeedCache;
+	}
+
+	/**
+	 * Sets the cache of feeds stored in the browser, {@code null} disables it. A stored feed is returned to the
+	 * callback in the next event loop, the callback is called once more when the feed received from the server
+	 * differs. Feeds differ when their ETags differ, or when the feeds have no ETag, when their entry ids or entry
+	 * update times differ. Feeds the service refreshes incrementally replace the stored ones as well.
+	 */
+	public void setPersistentFeedCache(PersistentFeedCache persistentFeedCache) {
+		this.persistentFeedCache = persistentFeedCache;
+	}
+
+	public FieldsProjection getProjection() {
+		return projection;
+	}
+
+	/**
+	 * Sets the properties of video entries the callbacks read, only they are requested from the server. {@code null}
+	 * requests complete entries.
+	 */
+	public void setProjection(FieldsProjection projection) {
+		this.projection = projection;
+	}
+
+	public boolean isCompactJson() {
+		return compactJson;
+	}
+
+	/**
+	 * Requests feeds in the compact JSON-C format. The projection is not applied to JSON-C queries, their entries are
+	 * compact already.
+	 */
+	public void setCompactJson(boolean compactJson) {
+		this.compactJson = compactJson;
+	}
+
+	public RequestHandle retrieveVideo(String textQuery, AsyncCallback<VideoFeed> callback) {
+		return retrieveVideos(VIDEO_FEED_URL, textQuery, null, RequestPriority.INTERACTIVE, callback);
+	}
+
+	public RequestHandle retrieveVideo(String textQuery, QueryPage queryPage, AsyncCallback<VideoFeed> callback) {
+		return retrieveVideos(VIDEO_FEED_URL, textQuery, queryPage, RequestPriority.INTERACTIVE, callback);
+	}
+
+	public RequestHandle retrieveVideo(String textQuery, QueryPage queryPage, RequestPriority priority,
+			AsyncCallback<VideoFeed> callback) {
+		return retrieveVideos(VIDEO_FEED_URL, textQuery, queryPage, priority, callback);
+	}
+
+	public RequestHandle retrieveTopRated(AsyncCallback<VideoFeed> callback) {
+		return retrieveVideos(TOP_RATED_FEED_URL, null, null, RequestPriority.VISIBLE, callback);
 	}
 
-	public void retrieveVideo(String textQuery, QueryPage queryPage, AsyncCallback<VideoFeed> callback) {
-		retrieveVideos(VIDEO_FEED_URL, textQuery, queryPage, callback);
+	public RequestHandle retrieveTopRated(RequestPriority priority, AsyncCallback<VideoFeed> callback) {
+		return retrieveVideos(TOP_RATED_FEED_URL, null, null, priority, callback);
 	}
 
-	public void retrieveTopRated(AsyncCallback<VideoFeed> callback) {
-		retrieveVideos(TOP_RATED_FEED_URL, null, null, callback);
+	public RequestHandle retrieveMostRecent(AsyncCallback<VideoFeed> callback) {
+		return retrieveVideos(MOST_RECENT_FEED_URL, null, null, RequestPriority.VISIBLE, callback);
 	}
 
-	public void retrieveMostRecent(AsyncCallback<VideoFeed> callback) {
-		retrieveVideos(MOST_RECENT_FEED_URL, null, null, callback);
+	public RequestHandle retrieveMostRecent(RequestPriority priority, AsyncCallback<VideoFeed> callback) {
+		return retrieveVideos(MOST_RECENT_FEED_URL, null, null, priority, callback);
 	}
 
-	private void retrieveVideos(String url, String textQuery, QueryPage queryPage,
+	private RequestHandle retrieveVideos(String url, String textQuery, QueryPage queryPage, RequestPriority priority,
 			final AsyncCallback<VideoFeed> callback) {
 
 		YouTubeService service = new YouTubeService();
 		// service.setConnectTimeout(timeout); // millis
+		YouTubeQuery query = createQuery(url, textQuery, queryPage);
+		if (compactJson) {
+			query.setCompactJson(true);
+		} else if (projection != null) {
+			projection.apply(query);
+		}
+
+		final String queryUrl = service.getQueryUrl(query);
+		final VideoFeed stored = getStoredFeed(service, query, queryUrl);
+
+		if (stored != null) {
+			// the query below only revalidates the stored feed
+			priority = RequestPriority.BACKGROUND;
+		}
+
+		final RequestHandle handle = service.query(query, new YouTubeJSONRequestHandler() {
+
+			@Override
+			public void onRequestComplete(JSONObject json, VideoFeed videoFeed) {
+				if (persistentFeedCache != null) {
+					if (stored != null && isSameContent(stored, videoFeed)) {
+						return;
+					}
+					persistentFeedCache.put(queryUrl, PersistentFeedCache.toPayload(json));
+				}
+				callback.onSuccess(videoFeed);
+			}
+
+			@Override
+			public void onRequestMerged(JSONObject changes, VideoFeed videoFeed) {
+				if (persistentFeedCache != null) {
+					String payload = PersistentFeedCache.merge(persistentFeedCache.get(queryUrl), changes, videoFeed);
+					if (payload != null) {
+						persistentFeedCache.put(queryUrl, payload);
+					} else {
+						// the stored payload cannot be refreshed, do not serve it outdated
+						persistentFeedCache.remove(queryUrl);
+					}
+				}
+				onRequestComplete(videoFeed);
+			}
+
+			@Override
+			public void onRequestComplete(VideoFeed videoFeed) {
+				// served from memory or not modified, the stored payload has the same content, keep it from eviction
+				if (persistentFeedCache != null) {
+					persistentFeedCache.get(queryUrl);
+				}
+				if (stored == null) {
+					callback.onSuccess(videoFeed);
+				}
+			}
+
+			@Override
+			public void onRequestFailure(Throwable caught) {
+				if (stored == null) {
+					callback.onFailure(caught);
+				}
+			}
+		}, priority);
+
+		if (stored != null) {
+			// the callback is not called before the handle is returned, like with the feeds cached by the service
+			Scheduler.get().scheduleDeferred(new ScheduledCommand() {
+
+				@Override
+				public void execute() {
+					if (!handle.isCancelled()) {
+						callback.onSuccess(stored);
+					}
+				}
+			});
+		}
+		return handle;
+	}
+
+	/**
+	 * Retrieves videos as read-only views of the response. The feed is not deserialized, cached nor stored in the
+	 * browser, the projection applies. Only the GData JSON format can be viewed, the compact JSON-C setting is ignored.
+	 */
+	public RequestHandle retrieveVideoOverlay(String textQuery, QueryPage queryPage, RequestPriority priority,
+			final AsyncCallback<VideoFeedOverlay> callback) {
+		YouTubeQuery query = createQuery(VIDEO_FEED_URL, textQuery, queryPage);
+		if (projection != null) {
+			projection.apply(query);
+		}
+		return new YouTubeService().query(query, new VideoFeedOverlayRequestHandler() {
+
+			@Override
+			public void onRequestComplete(VideoFeedOverlay feed) {
+				callback.onSuccess(feed);
+			}
+
+			@Override
+			public void onRequestFailure(Throwable caught) {
+				callback.onFailure(caught);
+			}
+		}, priority);
+	}
+
+	private YouTubeQuery createQuery(String url, String textQuery, QueryPage queryPage) {
 		YouTubeQuery query = new YouTubeQuery(url);
 
 		query.setOrderBy(YouTubeQuery.OrderBy.VIEW_COUNT);
@@ -45,13 +230,48 @@ public class YouTubeManager {
 		if (queryPage != null) {
 			query.setQueryPage(queryPage);
 		}
+		return query;
+	}
 
-		service.query(query, new YouTubeJSONRequestHandler() {
-			
-			@Override
-			public void onRequestComplete(VideoFeed videoFeed) {
-				callback.onSuccess(videoFeed);
+	/**
+	 * Returns the feed stored for the URL of the query unless the feed is already held in memory, expired feeds held in
+	 * memory are revalidated by the service.
+	 */
+	private VideoFeed getStoredFeed(YouTubeService service, Query query, String queryUrl) {
+		if (persistentFeedCache == null || !persistentFeedCache.isSupported()) {
+			return null;
+		}
+		VideoFeedCache feedCache = service.getFeedCache();
+		if (feedCache != null && (feedCache.contains(query) || feedCache.getExpired(query) != null)) {
+			return null;
+		}
+		return persistentFeedCache.getFeed(queryUrl);
+	}
+
+	/**
+	 * Returns {@code true} when the received feed has the same content as the stored one. The update time of the feed
+	 * itself is not compared, it changes with every response.
+	 */
+	private static boolean isSameContent(VideoFeed stored, VideoFeed received) {
+		if (stored.getEtag() != null && received.getEtag() != null) {
+			return stored.getEtag().equals(received.getEtag());
+		}
+		List<VideoEntry> storedEntries = stored.getEntries();
+		List<VideoEntry> receivedEntries = received.getEntries();
+		if (storedEntries == null || receivedEntries == null) {
+			return storedEntries == receivedEntries;
+		}
+		if (storedEntries.size() != receivedEntries.size()) {
+			return false;
+		}
+		for (int i = 0; i < storedEntries.size(); i++) {
+			VideoEntry storedEntry = storedEntries.get(i);
+			VideoEntry receivedEntry = receivedEntries.get(i);
+			if (storedEntry.getId() == null || !storedEntry.getId().equals(receivedEntry.getId())
+					|| storedEntry.getUpdated() == null || !storedEntry.getUpdated().equals(receivedEntry.getUpdated())) {
+				return false;
 			}
-		});
+		}
+		return true;
 	}
-}
\ No newline at end of file
+}
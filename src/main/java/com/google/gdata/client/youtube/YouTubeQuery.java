@@ -1,10 +1,8 @@
 package com.google.gdata.client.youtube;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -204,22 +202,13 @@ public class YouTubeQuery extends Query {
 		useCallbackFunction();
 	}
 
-	/**
-	 * The list of custom parameters associated with the query.
-	 */
-	private List<CustomParameter> customParameters = new ArrayList<CustomParameter>();
+	protected YouTubeQuery(YouTubeQuery source) {
+		super(source);
+	}
 
-	/**
-	 * Adds a new CustomParameter.
-	 * 
-	 * @param customParameter
-	 *            the new custom parameter to add.
-	 */
-	public void addCustomParameter(CustomParameter customParameter) {
-		if (customParameter == null) {
-			throw new NullPointerException("Null custom parameter");
-		}
-		customParameters.add(customParameter);
+	@Override
+	public YouTubeQuery copy() {
+		return new YouTubeQuery(this);
 	}
 
 	/**
@@ -598,11 +587,7 @@ public class YouTubeQuery extends Query {
 //	}
 
 	String getCustomParameterValue(String parameterName) {
-		List<CustomParameter> customParams = getCustomParameters(parameterName);
-		if (customParams.isEmpty()) {
-			return null;
-		}
-		return customParams.get(0).getValue();
+		return getStringCustomParameter(parameterName);
 	}
 
 	/**
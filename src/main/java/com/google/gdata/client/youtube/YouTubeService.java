@@ -1,17 +1,407 @@
 package com.google.gdata.client.youtube;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import com.google.gdata.client.Query;
 import com.google.gdata.client.Service;
+import com.google.gdata.client.json.ConditionalJSONTransport;
+import com.google.gdata.client.json.JSONPTransport;
 import com.google.gdata.client.json.JSONRequest;
 import com.google.gdata.client.json.JSONRequestHandler;
+import com.google.gdata.client.json.JSONTransport;
+import com.google.gdata.client.json.RequestHandle;
+import com.google.gdata.client.json.RequestPriority;
+import com.google.gdata.data.youtube.VideoEntry;
+import com.google.gdata.data.youtube.VideoFeed;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+import com.google.gwt.json.client.JSONObject;
 
 public class YouTubeService extends Service {
 
+	private static final String ORDERBY = "orderby";
+
+	private static final String MOST_RECENT_FEED = "/most_recent";
+
+	/**
+	 * Video feed request in flight together with the handlers waiting for it.
+	 */
+	private static class PendingFeed {
+
+		private RequestHandle request;
+		private final List<YouTubeJSONRequestHandler> handlers = new ArrayList<YouTubeJSONRequestHandler>();
+	}
+
+	/**
+	 * Handle of a video feed query. Cancelling it detaches the handler from the shared request, the request itself is
+	 * cancelled when no other handler waits for it.
+	 */
+	private static class FeedRequestHandle implements RequestHandle {
+
+		private final Query key;
+		private final PendingFeed pending;
+		private final YouTubeJSONRequestHandler handler;
+		private boolean cancelled = false;
+
+		FeedRequestHandle(Query key, PendingFeed pending, YouTubeJSONRequestHandler handler) {
+			this.key = key;
+			this.pending = pending;
+			this.handler = handler;
+		}
+
+		@Override
+		public void cancel() {
+			if (cancelled) {
+				return;
+			}
+			cancelled = true;
+			if (pending == null || pendingFeeds.get(key) != pending) {
+				// served from cache or already finished
+				return;
+			}
+			pending.handlers.remove(handler);
+			if (pending.handlers.isEmpty()) {
+				pendingFeeds.remove(key);
+				if (pending.request != null) {
+					pending.request.cancel();
+				}
+			}
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return cancelled;
+		}
+	}
+
+	/**
+	 * Video feeds in flight, keyed by snapshots of the queries as prepared by the transport.
+	 */
+	private static final Map<Query, PendingFeed> pendingFeeds = new HashMap<Query, PendingFeed>();
+
+	private static VideoFeedCache defaultFeedCache = null;
+
+	private VideoFeedCache feedCache = defaultFeedCache;
+
+	private static JSONTransport defaultTransport = new JSONPTransport();
+
+	private JSONTransport transport = defaultTransport;
+
 	public YouTubeService() {
 	}
 
-	public <T> void query(Query query, JSONRequestHandler handler) {
-		JSONRequest jsonRequest = new JSONRequest();
-		jsonRequest.get(query.getUrl(), handler);
+	/**
+	 * Returns the cache shared by services that were not given their own one.
+	 */
+	public static VideoFeedCache getDefaultFeedCache() {
+		return defaultFeedCache;
+	}
+
+	/**
+	 * Sets the cache used by services created afterwards. There is none by default, feeds are kept in memory only when
+	 * the application opts in.
+	 */
+	public static void setDefaultFeedCache(VideoFeedCache feedCache) {
+		defaultFeedCache = feedCache;
+	}
+
+	public VideoFeedCache getFeedCache() {
+		return feedCache;
+	}
+
+	/**
+	 * Sets the cache of video feeds requested through this service, {@code null} disables caching.
+	 */
+	public void setFeedCache(VideoFeedCache feedCache) {
+		this.feedCache = feedCache;
+	}
+
+	/**
+	 * Returns the transport shared by services that were not given their own one.
+	 */
+	public static JSONTransport getDefaultTransport() {
+		return defaultTransport;
+	}
+
+	/**
+	 * Sets the transport used by services created afterwards.
+	 */
+	public static void setDefaultTransport(JSONTransport transport) {
+		defaultTransport = transport;
+	}
+
+	public JSONTransport getTransport() {
+		return transport;
+	}
+
+	/**
+	 * Sets the transport loading the responses, {@link JSONPTransport} by default.
+	 */
+	public void setTransport(JSONTransport transport) {
+		this.transport = transport;
+	}
+
+	/**
+	 * Returns the URL the query is issued with by this service. The URL depends on the response format requested by
+	 * the transport.
+	 */
+	public String getQueryUrl(Query query) {
+		transport.prepare(query);
+		return query.getUrl();
+	}
+
+	/**
+	 * Executes the query. Video feeds are served from the feed cache when the handler is a
+	 * {@link YouTubeJSONRequestHandler} and the feed is cached; the handler is then notified in the next event loop.
+	 * Concurrent video feed queries with the same URL share one request and one deserialized feed, their handlers are
+	 * notified through {@link YouTubeJSONRequestHandler#onRequestComplete(JSONObject, VideoFeed)} and
+	 * {@link YouTubeJSONRequestHandler#onRequestFailure(Throwable)}, expired cached feeds refreshed by the entries
+	 * updated since through {@link YouTubeJSONRequestHandler#onRequestMerged(JSONObject, VideoFeed)}. The raw
+	 * {@link YouTubeJSONRequestHandler#onRequestComplete(JSONObject)} of these handlers is not called.
+	 *
+	 * @return handle to cancel the query
+	 */
+	public <T> RequestHandle query(Query query, JSONRequestHandler handler) {
+		return query(query, handler, RequestPriority.VISIBLE);
+	}
+
+	/**
+	 * Executes the query with given priority. A query joining a request in flight raises its priority when needed.
+	 *
+	 * @see #query(Query, JSONRequestHandler)
+	 */
+	public <T> RequestHandle query(Query query, JSONRequestHandler handler, RequestPriority priority) {
+		if (handler instanceof YouTubeJSONRequestHandler) {
+			return queryFeed(query, (YouTubeJSONRequestHandler) handler, priority);
+		}
+		return transport.get(query, handler, priority);
+	}
+
+	private RequestHandle queryFeed(final Query query, final YouTubeJSONRequestHandler handler,
+			RequestPriority priority) {
+		transport.prepare(query);
+		// the caller may change the query later, the snapshot identifies the request in the cache and in flight
+		final Query key = query.copy();
+
+		if (feedCache != null) {
+			final VideoFeed cached = feedCache.get(key);
+
+			if (cached != null) {
+				final FeedRequestHandle handle = new FeedRequestHandle(key, null, handler);
+				Scheduler.get().scheduleDeferred(new ScheduledCommand() {
+
+					@Override
+					public void execute() {
+						if (!handle.isCancelled()) {
+							handler.onRequestComplete(cached);
+						}
+					}
+				});
+				return handle;
+			}
+		}
+
+		PendingFeed pending = pendingFeeds.get(key);
+		if (pending != null) {
+			if (pending.request instanceof JSONRequest) {
+				((JSONRequest) pending.request).promote(priority);
+			}
+			pending.handlers.add(handler);
+			return new FeedRequestHandle(key, pending, handler);
+		}
+
+		pending = new PendingFeed();
+		pending.handlers.add(handler);
+		pendingFeeds.put(key, pending);
+
+		final List<YouTubeJSONRequestHandler> handlers = pending.handlers;
+		final VideoFeedCache cache = feedCache;
+		final VideoFeed expired = cache != null ? cache.getExpired(key) : null;
+		final boolean conditional = expired != null && expired.getEtag() != null
+				&& transport instanceof ConditionalJSONTransport;
+		final Date newestUpdate = expired != null && !conditional ? getIncrementalUpdateMin(query, expired) : null;
+
+		final PendingFeed shared = pending;
+		YouTubeJSONRequestHandler feedHandler = new YouTubeJSONRequestHandler() {
+
+			@Override
+			public void onRequestComplete(JSONObject json) {
+				VideoFeed videoFeed;
+				try {
+					videoFeed = deserialize(json);
+				} catch (RuntimeException e) {
+					onRequestFailure(e);
+					return;
+				} finally {
+					release();
+				}
+				if (newestUpdate != null) {
+					// only the entries updated since the feed was loaded are returned
+					complete(json, merge(expired, videoFeed));
+					return;
+				}
+				if (cache != null) {
+					cache.put(key, videoFeed, cache.getTtl(key));
+				}
+				notifyWaiting(json, null, videoFeed, null);
+			}
+
+			@Override
+			public void onRequestComplete(VideoFeed videoFeed) {
+			}
+
+			@Override
+			public void onNotModified() {
+				release();
+				complete(null, expired);
+			}
+
+			/**
+			 * Caches the revalidated feed, the changes are the response it was merged with.
+			 */
+			private void complete(JSONObject changes, VideoFeed videoFeed) {
+				cache.put(key, videoFeed, cache.getTtl(key));
+				notifyWaiting(null, changes, videoFeed, null);
+			}
+
+			@Override
+			public void onRequestFailure(Throwable caught) {
+				release();
+				notifyWaiting(null, null, null, caught);
+			}
+
+			private void release() {
+				if (pendingFeeds.get(key) == shared) {
+					pendingFeeds.remove(key);
+				}
+			}
+
+			/**
+			 * Notifies every waiting handler, even when some of them throw. The first exception is rethrown
+			 * afterwards.
+			 */
+			private void notifyWaiting(JSONObject json, JSONObject changes, VideoFeed videoFeed, Throwable caught) {
+				RuntimeException thrown = null;
+				for (YouTubeJSONRequestHandler waitingHandler : handlers) {
+					try {
+						if (caught != null) {
+							waitingHandler.onRequestFailure(caught);
+						} else if (json != null) {
+							waitingHandler.onRequestComplete(json, videoFeed);
+						} else if (changes != null) {
+							waitingHandler.onRequestMerged(changes, videoFeed);
+						} else {
+							waitingHandler.onRequestComplete(videoFeed);
+						}
+					} catch (RuntimeException e) {
+						if (thrown == null) {
+							thrown = e;
+						}
+					}
+				}
+				if (thrown != null) {
+					throw thrown;
+				}
+			}
+		};
+
+		if (conditional) {
+			pending.request = ((ConditionalJSONTransport) transport).getIfNoneMatch(query, expired.getEtag(),
+					feedHandler, priority);
+		} else if (newestUpdate != null) {
+			// the query of the caller is left intact, the transport may issue the request again later
+			Query changes = query.copy();
+			changes.setUpdatedMin(newestUpdate);
+			pending.request = transport.get(changes, feedHandler, priority);
+		} else {
+			pending.request = transport.get(query, feedHandler, priority);
+		}
+		return new FeedRequestHandle(key, pending, handler);
+	}
+
+	/**
+	 * Returns the time the expired feed is refreshed from, or {@code null} when it has to be loaded again. Only first
+	 * pages of time ordered queries without own updated-min are refreshed, the new entries are expected at the top of
+	 * them.
+	 */
+	private static Date getIncrementalUpdateMin(Query query, VideoFeed feed) {
+		if (query.getUpdatedMin() != null || query.getStartIndex() > 1 || feed.getEntries() == null
+				|| !isTimeOrdered(query)) {
+			return null;
+		}
+		Date newest = null;
+		for (VideoEntry entry : feed.getEntries()) {
+			Date updated = entry.getUpdated();
+			if (entry.getId() == null || updated == null) {
+				// entries cannot be matched
+				return null;
+			}
+			if (newest == null || updated.after(newest)) {
+				newest = updated;
+			}
+		}
+		return newest;
+	}
+
+	/**
+	 * Returns {@code true} if the feed lists the most recently published entries first, either a feed ordered by the
+	 * publication time or the most recent videos standard feed in its own order. Any other order applies to the most
+	 * recent videos as well.
+	 */
+	static boolean isTimeOrdered(Query query) {
+		String orderBy = query.getStringCustomParameter(ORDERBY);
+		if (orderBy != null) {
+			return orderBy.equals(YouTubeQuery.OrderBy.PUBLISHED.toParameterValue());
+		}
+		return query.getFeedUrl() != null && query.getFeedUrl().endsWith(MOST_RECENT_FEED);
+	}
+
+	/**
+	 * Returns feed with the entries updated since the feed was loaded merged into its entries. Entries with the same id
+	 * are replaced, entries published after all the held ones are put first and the feed keeps its number of entries.
+	 * Other entries belong to later pages and are left out. The feed itself is not modified, it may still be used by
+	 * the handlers it was passed to.
+	 */
+	private static VideoFeed merge(VideoFeed feed, VideoFeed changes) {
+		if (changes == null || changes.getEntries() == null || changes.getEntries().isEmpty()) {
+			return feed;
+		}
+
+		List<VideoEntry> entries = feed.getEntries();
+		Set<String> held = new HashSet<String>();
+		Date newestPublished = null;
+		for (VideoEntry entry : entries) {
+			held.add(entry.getId());
+			Date published = entry.getPublished();
+			if (published != null && (newestPublished == null || published.after(newestPublished))) {
+				newestPublished = published;
+			}
+		}
+
+		Map<String, VideoEntry> changed = new HashMap<String, VideoEntry>();
+		List<VideoEntry> merged = new ArrayList<VideoEntry>();
+		for (VideoEntry entry : changes.getEntries()) {
+			changed.put(entry.getId(), entry);
+			if (!held.contains(entry.getId()) && entry.getPublished() != null
+					&& (newestPublished == null || entry.getPublished().after(newestPublished))) {
+				merged.add(entry);
+			}
+		}
+		for (VideoEntry entry : entries) {
+			VideoEntry update = changed.get(entry.getId());
+			merged.add(update != null ? update : entry);
+		}
+		while (merged.size() > entries.size()) {
+			merged.remove(merged.size() - 1);
+		}
+		VideoFeed mergedFeed = new VideoFeed(feed);
+		mergedFeed.setEntries(merged);
+		return mergedFeed;
 	}
-}
\ No newline at end of file
+}
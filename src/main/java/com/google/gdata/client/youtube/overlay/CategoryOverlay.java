@@ -0,0 +1,24 @@
+package com.google.gdata.client.youtube.overlay;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Read-only view of a category in the GData JSON format.
+ */
+public class CategoryOverlay extends JavaScriptObject {
+
+	protected CategoryOverlay() {
+	}
+
+	public final native String getScheme() /*-{
+		return this.scheme || null;
+	}-*/;
+
+	public final native String getTerm() /*-{
+		return this.term || null;
+	}-*/;
+
+	public final native String getLabel() /*-{
+		return this.label || null;
+	}-*/;
+}
@@ -0,0 +1,24 @@
+package com.google.gdata.client.youtube.overlay;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Read-only view of a {@code media:thumbnail} element in the GData JSON format.
+ */
+public class MediaThumbnailOverlay extends JavaScriptObject {
+
+	protected MediaThumbnailOverlay() {
+	}
+
+	public final native String getUrl() /*-{
+		return this.url || null;
+	}-*/;
+
+	public final native int getWidth() /*-{
+		return parseInt(this.width, 10) || 0;
+	}-*/;
+
+	public final native int getHeight() /*-{
+		return parseInt(this.height, 10) || 0;
+	}-*/;
+}
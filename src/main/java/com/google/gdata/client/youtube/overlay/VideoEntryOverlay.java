@@ -0,0 +1,75 @@
+package com.google.gdata.client.youtube.overlay;
+
+import java.util.Date;
+
+import com.google.gdata.client.util.Rfc3339DateTime;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.JsArrayString;
+
+/**
+ * Read-only view of a video entry in the GData JSON format with the accessors of
+ * {@link com.google.gdata.data.youtube.VideoEntry} used by listings.
+ */
+public class VideoEntryOverlay extends JavaScriptObject {
+
+	protected VideoEntryOverlay() {
+	}
+
+	public final native String getId() /*-{
+		return this.id ? this.id.$t : null;
+	}-*/;
+
+	/**
+	 * Returns the plain text of the title.
+	 */
+	public final native String getTitle() /*-{
+		return this.title ? this.title.$t : null;
+	}-*/;
+
+	public final Date getPublished() {
+		return parseDate(getDateText("published"));
+	}
+
+	public final Date getUpdated() {
+		return parseDate(getDateText("updated"));
+	}
+
+	private native String getDateText(String key) /*-{
+		return this[key] ? this[key].$t : null;
+	}-*/;
+
+	public final native JsArrayString getAuthorNames() /*-{
+		var names = [];
+		var authors = this.author || [];
+		for (var i = 0; i < authors.length; i++) {
+			if (authors[i].name) {
+				names.push(authors[i].name.$t);
+			}
+		}
+		return names;
+	}-*/;
+
+	public final native JsArray<CategoryOverlay> getCategories() /*-{
+		return this.category || [];
+	}-*/;
+
+	public final native YouTubeMediaGroupOverlay getMediaGroup() /*-{
+		return this.media$group || null;
+	}-*/;
+
+	public final native YtStatisticsOverlay getStatistics() /*-{
+		return this.yt$statistics || null;
+	}-*/;
+
+	static Date parseDate(String text) {
+		if (text == null) {
+			return null;
+		}
+		try {
+			return Rfc3339DateTime.parse(text);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+}
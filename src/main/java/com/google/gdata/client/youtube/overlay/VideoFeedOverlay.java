@@ -0,0 +1,44 @@
+package com.google.gdata.client.youtube.overlay;
+
+import com.google.gdata.client.Query;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+
+/**
+ * Read-only view of a video feed response in the GData JSON format. Accessors read straight from the parsed response,
+ * nothing is copied into the {@link com.google.gdata.data.youtube.VideoFeed} model.
+ */
+public class VideoFeedOverlay extends JavaScriptObject {
+
+	protected VideoFeedOverlay() {
+	}
+
+	/**
+	 * Returns the number of results of the query, {@link Query#UNDEFINED} when not known.
+	 */
+	public final int getTotalResults() {
+		return (int) getNumber("openSearch$totalResults");
+	}
+
+	public final int getStartIndex() {
+		return (int) getNumber("openSearch$startIndex");
+	}
+
+	public final int getItemsPerPage() {
+		return (int) getNumber("openSearch$itemsPerPage");
+	}
+
+	private native double getNumber(String key) /*-{
+		var element = this.feed && this.feed[key];
+		var value = element ? parseInt(element.$t, 10) : NaN;
+		return isNaN(value) ? @com.google.gdata.client.Query::UNDEFINED : value;
+	}-*/;
+
+	public final native String getEtag() /*-{
+		return this.feed && this.feed.gd$etag || null;
+	}-*/;
+
+	public final native JsArray<VideoEntryOverlay> getEntries() /*-{
+		return this.feed && this.feed.entry || [];
+	}-*/;
+}
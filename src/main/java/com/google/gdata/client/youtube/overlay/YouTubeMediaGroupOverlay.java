@@ -0,0 +1,42 @@
+package com.google.gdata.client.youtube.overlay;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+
+/**
+ * Read-only view of a {@code media:group} element in the GData JSON format with the accessors of
+ * {@link com.google.gdata.data.youtube.YouTubeMediaGroup} used by listings.
+ */
+public class YouTubeMediaGroupOverlay extends JavaScriptObject {
+
+	protected YouTubeMediaGroupOverlay() {
+	}
+
+	public final native String getVideoId() /*-{
+		return this.yt$videoid ? this.yt$videoid.$t : null;
+	}-*/;
+
+	/**
+	 * Returns the plain text of the description.
+	 */
+	public final native String getDescription() /*-{
+		return this.media$description ? this.media$description.$t : null;
+	}-*/;
+
+	public final native JsArray<MediaThumbnailOverlay> getThumbnails() /*-{
+		return this.media$thumbnail || [];
+	}-*/;
+
+	/**
+	 * Returns the duration in seconds, {@code null} when not known.
+	 */
+	public final Long getDuration() {
+		double seconds = getDurationValue();
+		return seconds < 0 ? null : Long.valueOf((long) seconds);
+	}
+
+	private native double getDurationValue() /*-{
+		var seconds = this.yt$duration ? parseInt(this.yt$duration.seconds, 10) : NaN;
+		return isNaN(seconds) ? -1 : seconds;
+	}-*/;
+}
@@ -0,0 +1,26 @@
+package com.google.gdata.client.youtube.overlay;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Read-only view of a {@code yt:statistics} element in the GData JSON format.
+ */
+public class YtStatisticsOverlay extends JavaScriptObject {
+
+	protected YtStatisticsOverlay() {
+	}
+
+	/** Gets view count, 0 by default. */
+	public final long getViewCount() {
+		return (long) getCount("viewCount");
+	}
+
+	/** Gets favorite count, 0 by default. */
+	public final long getFavoriteCount() {
+		return (long) getCount("favoriteCount");
+	}
+
+	private native double getCount(String key) /*-{
+		return parseInt(this[key], 10) || 0;
+	}-*/;
+}
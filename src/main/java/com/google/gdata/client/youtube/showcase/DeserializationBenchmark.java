@@ -0,0 +1,74 @@
+package com.google.gdata.client.youtube.showcase;
+
+import sk.seges.acris.json.client.IJsonizer;
+
+import com.google.gdata.client.GoogleJsonizerBuilder;
+import com.google.gdata.client.deserialize.GeneratedDeserializers;
+import com.google.gdata.data.youtube.VideoEntry;
+import com.google.gdata.data.youtube.VideoFeed;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.EntryPoint;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONParser;
+import com.google.gwt.user.client.ui.Label;
+import com.google.gwt.user.client.ui.RootPanel;
+
+/**
+ * Compares the deserialization of a 50-entry video feed by the jsonizer walking the field metadata with the
+ * deserialization using the deserializers generated at compile time by {@link GeneratedDeserializers}. Both paths
+ * deserialize the feed as {@link VideoFeed} through a {@link GoogleJsonizerBuilder} jsonizer, media groups included,
+ * and read every entry, so the lazily deserialized entries are measured as well.
+ * <p>
+ * Run it compiled, not in development mode, the timings of the development mode are meaningless.
+ */
+public class DeserializationBenchmark implements EntryPoint {
+
+	private static final int ENTRY_COUNT = 50;
+
+	private static final int WARM_UP_ROUNDS = 20;
+
+	private static final int ROUNDS = 200;
+
+	@Override
+	public void onModuleLoad() {
+		GeneratedDeserializers.setEnabled(false);
+		final IJsonizer metadataJsonizer = new GoogleJsonizerBuilder().create();
+		GeneratedDeserializers.setEnabled(true);
+		final IJsonizer generatedJsonizer = new GoogleJsonizerBuilder().create();
+
+		final JSONObject feed = JSONParser.parseStrict(SampleFeed.create(ENTRY_COUNT)).isObject();
+		RootPanel.get().add(new Label("Deserializing " + ENTRY_COUNT + " entries, " + ROUNDS + " rounds..."));
+		Scheduler.get().scheduleDeferred(new ScheduledCommand() {
+
+			@Override
+			public void execute() {
+				run(metadataJsonizer, false, feed, WARM_UP_ROUNDS);
+				run(generatedJsonizer, true, feed, WARM_UP_ROUNDS);
+				report("Jsonizer", run(metadataJsonizer, false, feed, ROUNDS));
+				report("Generated", run(generatedJsonizer, true, feed, ROUNDS));
+			}
+		});
+	}
+
+	private static double run(IJsonizer jsonizer, boolean generated, JSONObject feed, int rounds) {
+		GeneratedDeserializers.setEnabled(generated);
+		try {
+			Duration duration = new Duration();
+			for (int round = 0; round < rounds; round++) {
+				VideoFeed videoFeed = jsonizer.fromJson(feed, VideoFeed.class);
+				for (VideoEntry entry : videoFeed.getEntries()) {
+					entry.getMediaGroup();
+				}
+			}
+			return (double) duration.elapsedMillis() / rounds;
+		} finally {
+			GeneratedDeserializers.setEnabled(true);
+		}
+	}
+
+	private void report(String name, double millisPerFeed) {
+		RootPanel.get().add(new Label(name + ": " + millisPerFeed + " ms per feed"));
+	}
+}
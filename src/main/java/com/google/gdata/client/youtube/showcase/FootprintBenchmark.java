@@ -0,0 +1,191 @@
+package com.google.gdata.client.youtube.showcase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+
+import sk.seges.acris.json.client.IJsonizer;
+
+import com.google.gdata.client.GoogleJsonizerBuilder;
+import com.google.gdata.data.Category;
+import com.google.gdata.data.Link;
+import com.google.gdata.data.LinkList;
+import com.google.gdata.data.Person;
+import com.google.gdata.data.youtube.VideoEntry;
+import com.google.gdata.data.youtube.VideoFeed;
+import com.google.gdata.util.CompactList;
+import com.google.gdata.util.CompactSet;
+import com.google.gwt.core.client.EntryPoint;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.RepeatingCommand;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONParser;
+import com.google.gwt.user.client.ui.Label;
+import com.google.gwt.user.client.ui.RootPanel;
+
+/**
+ * Measures the heap retained by deserialized video entries, whose categories, links and people are held in the
+ * compact containers, and estimates the heap the same entries retained when the jsonizer deserialized them into a
+ * {@link HashSet} and {@link LinkedList}s allocated with every entry.
+ * <p>
+ * The estimate replaces the compact containers of the deserialized entries with the JDK collections: both are built
+ * from the elements of every entry, each in its own step, and the difference of their heap sizes is added to the heap
+ * of the entries. The elements are shared, so only the containers differ.
+ * <p>
+ * The heap size is read from {@code performance.memory}, which is available in Chrome only. Run Chrome with
+ * {@code --enable-precise-memory-info --js-flags=--expose-gc}, otherwise the values are rounded and garbage of the
+ * previous step may be counted.
+ */
+public class FootprintBenchmark implements EntryPoint {
+
+	private static final int ENTRY_COUNT = 50;
+
+	private static final int FEED_COUNT = 200;
+
+	private static final int ROUNDS = 3;
+
+	private final IJsonizer jsonizer = new GoogleJsonizerBuilder().create();
+
+	private final JSONObject feed = JSONParser.parseStrict(SampleFeed.create(ENTRY_COUNT)).isObject();
+
+	/** Deserialized entries, kept reachable while their containers are measured. */
+	private List<VideoEntry> entries;
+
+	/** Keeps the measured containers reachable until the heap is read. */
+	private List<Object> containers;
+
+	@Override
+	public void onModuleLoad() {
+		if (!isSupported()) {
+			RootPanel.get().add(new Label("performance.memory is not available, run the benchmark in Chrome."));
+			return;
+		}
+		RootPanel.get().add(
+				new Label("Measuring " + ENTRY_COUNT * FEED_COUNT + " deserialized entries, " + ROUNDS + " rounds..."));
+
+		// every step runs in its own event loop, so the garbage of the previous one can be collected
+		Scheduler.get().scheduleFixedDelay(new RepeatingCommand() {
+
+			private int step = 0;
+
+			private double deserialized = 0;
+
+			private double jdk = 0;
+
+			private double compact = 0;
+
+			@Override
+			public boolean execute() {
+				switch (step % 3) {
+				case 0:
+					if (step == 3 * ROUNDS) {
+						report("Deserialized entries", deserialized / ROUNDS);
+						report("Deserialized entries with JDK collections", (deserialized - compact + jdk) / ROUNDS);
+						report("JDK collections alone", jdk / ROUNDS);
+						report("Compact containers alone", compact / ROUNDS);
+						entries = null;
+						return false;
+					}
+					deserialized += measureEntries();
+					break;
+				case 1:
+					jdk += measureContainers(false);
+					break;
+				default:
+					compact += measureContainers(true);
+					break;
+				}
+				step++;
+				return true;
+			}
+		}, 500);
+	}
+
+	private double measureEntries() {
+		entries = null;
+		containers = null;
+		collectGarbage();
+		double before = getUsedHeapSize();
+		List<VideoEntry> deserialized = new ArrayList<VideoEntry>(ENTRY_COUNT * FEED_COUNT);
+		for (int i = 0; i < FEED_COUNT; i++) {
+			VideoFeed videoFeed = jsonizer.fromJson(feed, VideoFeed.class);
+			// entries are deserialized when read
+			deserialized.addAll(videoFeed.getEntries());
+		}
+		entries = deserialized;
+		collectGarbage();
+		double size = getUsedHeapSize() - before;
+		// the accessor allocates the container of the entries without contributors, outside of the measured steps
+		for (VideoEntry entry : entries) {
+			entry.getContributors();
+		}
+		return size;
+	}
+
+	/**
+	 * Measures the containers holding the categories, links and people of the deserialized entries, either the compact
+	 * containers the entries hold or the JDK collections allocated for every entry.
+	 */
+	private double measureContainers(boolean compact) {
+		containers = null;
+		collectGarbage();
+		double before = getUsedHeapSize();
+		List<Object> measured = new ArrayList<Object>(4 * entries.size());
+		for (VideoEntry entry : entries) {
+			if (compact) {
+				addIfNotEmpty(measured, fill(new CompactSet<Category>(), entry.getCategories()));
+				addIfNotEmpty(measured, fill(new LinkList(), entry.getLinks()));
+				addIfNotEmpty(measured, fill(new CompactList<Person>(), entry.getAuthors()));
+				addIfNotEmpty(measured, fill(new CompactList<Person>(), entry.getContributors()));
+			} else {
+				measured.add(fill(new HashSet<Category>(), entry.getCategories()));
+				measured.add(fill(new LinkedList<Link>(), entry.getLinks()));
+				measured.add(fill(new LinkedList<Person>(), entry.getAuthors()));
+				measured.add(fill(new LinkedList<Person>(), entry.getContributors()));
+			}
+		}
+		containers = measured;
+		collectGarbage();
+		return getUsedHeapSize() - before;
+	}
+
+	/**
+	 * Adds the elements one by one, as the deserializers do.
+	 */
+	private static <T> Collection<T> fill(Collection<T> collection, Collection<? extends T> elements) {
+		for (T element : elements) {
+			collection.add(element);
+		}
+		return collection;
+	}
+
+	/**
+	 * Keeps a compact container only if it has elements, the entries do not allocate the others.
+	 */
+	private static void addIfNotEmpty(List<Object> measured, Collection<?> container) {
+		if (!container.isEmpty()) {
+			measured.add(container);
+		}
+	}
+
+	private void report(String name, double bytes) {
+		long bytesPerEntry = Math.round(bytes / (ENTRY_COUNT * FEED_COUNT));
+		RootPanel.get().add(new Label(name + ": " + bytesPerEntry + " bytes per entry"));
+	}
+
+	private static native boolean isSupported() /*-{
+		return !!($wnd.performance && $wnd.performance.memory);
+	}-*/;
+
+	private static native double getUsedHeapSize() /*-{
+		return $wnd.performance.memory.usedJSHeapSize;
+	}-*/;
+
+	private static native void collectGarbage() /*-{
+		if ($wnd.gc) {
+			$wnd.gc();
+		}
+	}-*/;
+}
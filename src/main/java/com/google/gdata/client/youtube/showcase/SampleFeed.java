@@ -0,0 +1,75 @@
+package com.google.gdata.client.youtube.showcase;
+
+/**
+ * Video feed shared by the benchmarks, every entry has the categories, links, author, statistics and media group of a
+ * typical video entry.
+ */
+class SampleFeed {
+
+	private SampleFeed() {
+	}
+
+	/**
+	 * Returns a feed in the GData JSON format with the given number of entries.
+	 */
+	static String create(int entryCount) {
+		StringBuilder json = new StringBuilder();
+		json.append("{\"version\":\"1.0\",\"encoding\":\"UTF-8\",\"feed\":{");
+		json.append("\"id\":{\"$t\":\"http://gdata.youtube.com/feeds/api/standardfeeds/most_popular\"},");
+		json.append("\"updated\":{\"$t\":\"2010-06-01T12:00:00.000Z\"},");
+		json.append("\"title\":{\"$t\":\"Most Popular\",\"type\":\"text\"},");
+		json.append("\"author\":[{\"name\":{\"$t\":\"YouTube\"},\"uri\":{\"$t\":\"http://www.youtube.com/\"}}],");
+		json.append("\"openSearch$totalResults\":{\"$t\":1000},");
+		json.append("\"openSearch$startIndex\":{\"$t\":1},");
+		json.append("\"openSearch$itemsPerPage\":{\"$t\":").append(entryCount).append("},");
+		json.append("\"entry\":[");
+		for (int i = 0; i < entryCount; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"id\":{\"$t\":\"http://gdata.youtube.com/feeds/api/videos/video").append(i).append("\"},");
+			json.append("\"published\":{\"$t\":\"2010-05-").append(10 + i % 20).append("T08:30:00.000Z\"},");
+			json.append("\"updated\":{\"$t\":\"2010-06-01T10:15:00.000Z\"},");
+			json.append("\"category\":[{\"scheme\":\"http://schemas.google.com/g/2005#kind\",");
+			json.append("\"term\":\"http://gdata.youtube.com/schemas/2007#video\"},");
+			json.append("{\"scheme\":\"http://gdata.youtube.com/schemas/2007/categories.cat\",\"term\":\"Music\",");
+			json.append("\"label\":\"Music\"}],");
+			json.append("\"title\":{\"$t\":\"Video number ").append(i).append("\",\"type\":\"text\"},");
+			json.append("\"content\":{\"$t\":\"Description of video ").append(i).append("\",\"type\":\"text\"},");
+			json.append("\"link\":[{\"rel\":\"alternate\",\"type\":\"text/html\",");
+			json.append("\"href\":\"http://www.youtube.com/watch?v=video").append(i).append("\"},");
+			json.append("{\"rel\":\"self\",\"type\":\"application/atom+xml\",");
+			json.append("\"href\":\"http://gdata.youtube.com/feeds/api/videos/video").append(i).append("\"}],");
+			json.append("\"author\":[{\"name\":{\"$t\":\"author").append(i % 7).append("\"},");
+			json.append("\"uri\":{\"$t\":\"http://gdata.youtube.com/feeds/api/users/author").append(i % 7)
+					.append("\"}}],");
+			json.append("\"media$group\":{");
+			json.append("\"media$title\":{\"$t\":\"Video number ").append(i).append("\",\"type\":\"plain\"},");
+			json.append("\"media$description\":{\"$t\":\"Description of video ").append(i)
+					.append("\",\"type\":\"plain\"},");
+			json.append("\"media$keywords\":{\"$t\":\"music, live\"},");
+			json.append("\"media$category\":[{\"$t\":\"Music\",\"label\":\"Music\",");
+			json.append("\"scheme\":\"http://gdata.youtube.com/schemas/2007/categories.cat\"}],");
+			json.append("\"media$content\":[{\"url\":\"http://www.youtube.com/v/video").append(i).append("\",");
+			json.append("\"type\":\"application/x-shockwave-flash\",\"medium\":\"video\",\"isDefault\":\"true\",");
+			json.append("\"expression\":\"full\",\"duration\":215,\"yt$format\":5}],");
+			json.append("\"media$player\":[{\"url\":\"http://www.youtube.com/watch?v=video").append(i)
+					.append("\"}],");
+			json.append("\"media$thumbnail\":[");
+			for (int t = 0; t < 4; t++) {
+				if (t > 0) {
+					json.append(',');
+				}
+				json.append("{\"url\":\"http://i.ytimg.com/vi/video").append(i).append('/').append(t)
+						.append(".jpg\",\"height\":90,\"width\":120,\"time\":\"00:01:47.500\"}");
+			}
+			json.append("],");
+			json.append("\"yt$duration\":{\"seconds\":\"215\"},");
+			json.append("\"yt$videoid\":{\"$t\":\"video").append(i).append("\"}},");
+			json.append("\"yt$statistics\":{\"favoriteCount\":\"").append(i * 3).append("\",\"viewCount\":\"")
+					.append(i * 1000).append("\"}}");
+		}
+		json.append("]}}");
+		return json.toString();
+	}
+}
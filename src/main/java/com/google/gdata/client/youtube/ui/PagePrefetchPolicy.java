@@ -0,0 +1,102 @@
+package com.google.gdata.client.youtube.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gdata.client.Query;
+
+/**
+ * Decides which result pages are fetched ahead once the current page is shown. Pages adjacent to the current one are
+ * prefetched up to the configured depth. When the user does not go to any of the prefetched pages, the following
+ * prefetch rounds are skipped, the number of skipped rounds doubles with every unused round.
+ */
+public class PagePrefetchPolicy {
+
+	public static final int DEFAULT_DEPTH = 1;
+
+	/** Default delay in milliseconds between showing a page and prefetching. */
+	public static final int DEFAULT_DELAY = 500;
+
+	private static final int MAX_BACKOFF = 8;
+
+	private int depth = DEFAULT_DEPTH;
+
+	private int delay = DEFAULT_DELAY;
+
+	private String prefetchedQuery;
+
+	private List<Integer> prefetchedPages = new ArrayList<Integer>();
+
+	private int unusedRounds = 0;
+
+	private int roundsToSkip = 0;
+
+	/**
+	 * Sets how many pages before and after the current page are prefetched, zero disables prefetching.
+	 */
+	public void setDepth(int depth) {
+		if (depth < 0) {
+			throw new IllegalArgumentException("Depth must be zero or larger");
+		}
+		this.depth = depth;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public void setDelay(int delay) {
+		this.delay = delay;
+	}
+
+	public int getDelay() {
+		return delay;
+	}
+
+	/**
+	 * Records the page the user asked for, so unused prefetches can be detected.
+	 */
+	public void onPageRequested(String textQuery, int pageIndex) {
+		if (prefetchedPages.isEmpty()) {
+			return;
+		}
+		boolean used = (textQuery == null ? prefetchedQuery == null : textQuery.equals(prefetchedQuery))
+				&& prefetchedPages.contains(Integer.valueOf(pageIndex));
+		if (used) {
+			unusedRounds = 0;
+			roundsToSkip = 0;
+		} else {
+			unusedRounds++;
+			roundsToSkip = Math.min(MAX_BACKOFF, 1 << (unusedRounds - 1));
+		}
+		prefetchedPages.clear();
+	}
+
+	/**
+	 * Returns the pages to prefetch after the page was shown, the closest pages come first.
+	 *
+	 * @param maxPageIndex
+	 *            index of the last page or {@link Query#UNDEFINED} when unknown
+	 */
+	public List<Integer> getPagesToPrefetch(String textQuery, int pageIndex, int maxPageIndex) {
+		prefetchedPages.clear();
+		prefetchedQuery = textQuery;
+
+		if (roundsToSkip > 0) {
+			roundsToSkip--;
+			return new ArrayList<Integer>();
+		}
+
+		for (int distance = 1; distance <= depth; distance++) {
+			int next = pageIndex + distance;
+			if (maxPageIndex == Query.UNDEFINED || next <= maxPageIndex) {
+				prefetchedPages.add(Integer.valueOf(next));
+			}
+			int previous = pageIndex - distance;
+			if (previous >= 1) {
+				prefetchedPages.add(Integer.valueOf(previous));
+			}
+		}
+		return new ArrayList<Integer>(prefetchedPages);
+	}
+}
@@ -0,0 +1,123 @@
+package com.google.gdata.client.youtube.ui;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gdata.data.TextConstruct;
+import com.google.gdata.data.media.mediarss.MediaDescription;
+import com.google.gdata.data.youtube.VideoEntry;
+import com.google.gdata.data.youtube.VideoFeed;
+
+/**
+ * Keeps the first result pages of recent searches, so the results of a longer search term can be estimated while its
+ * query is in flight. The entries of the longest cached term that is a prefix of the new term are narrowed to those
+ * whose title or description contains every word of the new term.
+ */
+public class SearchPrefixCache {
+
+	public static final int DEFAULT_MAX_ENTRIES = 20;
+
+	private final LinkedHashMap<String, List<VideoEntry>> results;
+
+	public SearchPrefixCache() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * @param maxEntries
+	 *            maximum number of cached searches
+	 * @throws IllegalArgumentException
+	 *             if the value is less than one.
+	 */
+	public SearchPrefixCache(final int maxEntries) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("Cache must hold at least one search");
+		}
+		this.results = new LinkedHashMap<String, List<VideoEntry>>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, List<VideoEntry>> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	public void put(String textQuery, VideoFeed feed) {
+		if (textQuery == null || feed == null || feed.getEntries() == null) {
+			return;
+		}
+		results.put(normalize(textQuery), new ArrayList<VideoEntry>(feed.getEntries()));
+	}
+
+	/**
+	 * Returns the cached entries matching the search term, or {@code null} when no earlier search is a prefix of the
+	 * term.
+	 */
+	public List<VideoEntry> get(String textQuery) {
+		if (textQuery == null) {
+			return null;
+		}
+		String term = normalize(textQuery);
+
+		String prefix = null;
+		for (String cached : results.keySet()) {
+			if (term.startsWith(cached) && (prefix == null || cached.length() > prefix.length())) {
+				prefix = cached;
+			}
+		}
+		if (prefix == null) {
+			return null;
+		}
+
+		List<VideoEntry> entries = results.get(prefix);
+		if (prefix.equals(term)) {
+			return entries;
+		}
+
+		String[] words = term.split("\\s+");
+		List<VideoEntry> matching = new ArrayList<VideoEntry>();
+		for (VideoEntry entry : entries) {
+			if (matches(entry, words)) {
+				matching.add(entry);
+			}
+		}
+		return matching;
+	}
+
+	public void clear() {
+		results.clear();
+	}
+
+	public int size() {
+		return results.size();
+	}
+
+	private boolean matches(VideoEntry entry, String[] words) {
+		StringBuilder text = new StringBuilder();
+		TextConstruct title = entry.getTitle();
+		if (title != null && title.getPlainText() != null) {
+			text.append(title.getPlainText());
+		}
+		if (entry.getMediaGroup() != null) {
+			MediaDescription description = entry.getMediaGroup().getDescription();
+			if (description != null && description.getPlainTextContent() != null) {
+				text.append(' ').append(description.getPlainTextContent());
+			}
+		}
+		String content = text.toString().toLowerCase();
+		for (String word : words) {
+			if (content.indexOf(word) == -1) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String normalize(String textQuery) {
+		return textQuery.trim().toLowerCase();
+	}
+}
@@ -112,14 +112,35 @@ public class YouTubePaginator extends CustomizableUIComposite {
 		this.offset = offset;
 	}
 
+	/**
+	 * Returns 1-based index of the page the query page starts at.
+	 */
+	public static int getPageIndex(QueryPage queryPage) {
+		return ((queryPage.getStartIndex() - 1) / queryPage.getItemsPerPage()) + 1;
+	}
+
+	/**
+	 * Returns 1-based index of the last page or {@link Query#UNDEFINED} if the total number of results is unknown.
+	 */
+	public static int getMaxPageIndex(QueryPage queryPage) {
+		if (queryPage.getTotalResults() == Query.UNDEFINED) {
+			return Query.UNDEFINED;
+		}
+		return ((queryPage.getTotalResults() - 1) / queryPage.getItemsPerPage()) + 1;
+	}
+
+	/**
+	 * Returns the query page that starts at given 1-based page index.
+	 */
+	public static QueryPage getQueryPage(QueryPage queryPage, int pageIndex) {
+		return new QueryPage((pageIndex - 1) * queryPage.getItemsPerPage() + 1, queryPage.getItemsPerPage(),
+				queryPage.getTotalResults());
+	}
+
 	public void showPagingButtons() {
 		
-		int pageIndex = ((queryPage.getStartIndex() - 1) / queryPage.getItemsPerPage()) + 1;
-		int maxPageIndex = Query.UNDEFINED;
-		
-		if (queryPage.getTotalResults() != Query.UNDEFINED) {
-			maxPageIndex = ((queryPage.getTotalResults() - 1) / queryPage.getItemsPerPage()) + 1;
-		}
+		int pageIndex = getPageIndex(queryPage);
+		int maxPageIndex = getMaxPageIndex(queryPage);
 		
 		if (pageIndex > 1) {
 			panel.add(addEventHandler(createLabel(messages.previous()), pageIndex-1));
@@ -3,9 +3,13 @@ package com.google.gdata.client.youtube.ui;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.event.dom.client.ClickEvent;
 import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.event.dom.client.KeyCodes;
+import com.google.gwt.event.dom.client.KeyUpEvent;
+import com.google.gwt.event.dom.client.KeyUpHandler;
 import com.google.gwt.event.shared.EventHandler;
 import com.google.gwt.event.shared.GwtEvent;
 import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.Button;
 import com.google.gwt.user.client.ui.FlowPanel;
 import com.google.gwt.user.client.ui.TextBox;
@@ -16,11 +20,28 @@ public class YouTubeSearchPanel extends CustomizableUIComposite {
 	public static final String SEARCH_BUTTON_STYLE = "youtube-search-button";
 	public static final String SEARCH_PANEL_STYLE = "youtube-search-panel";
 
+	/** Default delay in milliseconds between the last key stroke and an incremental search. */
+	public static final int DEFAULT_DEBOUNCE_DELAY = 300;
+
+	/** Default number of characters an incremental search needs. */
+	public static final int DEFAULT_MIN_QUERY_LENGTH = 3;
+
 	private static final YouTubeMessages youTubeMessages = GWT.create(YouTubeMessages.class);
 
 	private FlowPanel flowPanel;
 
 	private TextBox textBox;
+
+	private boolean incremental = false;
+
+	private int debounceDelay = DEFAULT_DEBOUNCE_DELAY;
+
+	private int minQueryLength = DEFAULT_MIN_QUERY_LENGTH;
+
+	private Timer debounceTimer;
+
+	/** Last searched text, the same text is not searched twice in a row while typing. */
+	private String lastSearch;
 	
 	public static interface SearchHandler extends EventHandler {
 		void onPage(SearchEvent event);
@@ -31,8 +52,12 @@ public class YouTubeSearchPanel extends CustomizableUIComposite {
 		private static Type<SearchHandler> TYPE;
 
 		public static void fire(YouTubeSearchPanel source, String search) {
+			fire(source, search, false);
+		}
+
+		public static void fire(YouTubeSearchPanel source, String search, boolean incremental) {
 			if (TYPE != null) {
-				SearchEvent event = new SearchEvent(search);
+				SearchEvent event = new SearchEvent(search, incremental);
 				source.fireEvent(event);
 			}
 		}
@@ -43,8 +68,15 @@ public class YouTubeSearchPanel extends CustomizableUIComposite {
 
 		private String search;
 
+		private boolean incremental;
+
 		protected SearchEvent(String search) {
+			this(search, false);
+		}
+
+		protected SearchEvent(String search, boolean incremental) {
 			this.search = search;
+			this.incremental = incremental;
 		}
 
 		@Override
@@ -56,6 +88,13 @@ public class YouTubeSearchPanel extends CustomizableUIComposite {
 			return search;
 		}
 
+		/**
+		 * Returns {@code true} if the search was fired while the user was typing.
+		 */
+		public boolean isIncremental() {
+			return incremental;
+		}
+
 		@Override
 		protected void dispatch(SearchHandler handler) {
 			handler.onPage(this);
@@ -77,6 +116,68 @@ public class YouTubeSearchPanel extends CustomizableUIComposite {
 		this.textBox.setText(text);
 	}
 
+	/**
+	 * Enables searching while the user types. The search is fired once the user stops typing for the debounce delay
+	 * and the text has at least the minimum length.
+	 */
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+		if (!incremental) {
+			cancelDebounce();
+		}
+	}
+
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	public void setDebounceDelay(int debounceDelay) {
+		this.debounceDelay = debounceDelay;
+	}
+
+	public int getDebounceDelay() {
+		return debounceDelay;
+	}
+
+	public void setMinQueryLength(int minQueryLength) {
+		this.minQueryLength = minQueryLength;
+	}
+
+	public int getMinQueryLength() {
+		return minQueryLength;
+	}
+
+	private void cancelDebounce() {
+		if (debounceTimer != null) {
+			debounceTimer.cancel();
+			debounceTimer = null;
+		}
+	}
+
+	private void search() {
+		cancelDebounce();
+		lastSearch = textBox.getValue();
+		SearchEvent.fire(this, lastSearch, false);
+	}
+
+	private void scheduleIncrementalSearch() {
+		cancelDebounce();
+		final String text = textBox.getValue();
+		if (text == null || text.trim().length() < minQueryLength || text.equals(lastSearch)) {
+			return;
+		}
+		debounceTimer = new Timer() {
+
+			@Override
+			public void run() {
+				debounceTimer = null;
+				lastSearch = text;
+				SearchEvent.fire(YouTubeSearchPanel.this, text, true);
+			}
+		};
+		debounceTimer.schedule(Math.max(1, debounceDelay));
+	}
+
 	protected TextBox constructTextBox() {
 		return new TextBox();
 	}
@@ -88,6 +189,17 @@ public class YouTubeSearchPanel extends CustomizableUIComposite {
 	public void prepareUI() {
 		textBox = constructTextBox();
 		textBox.setStyleName(SEARCH_BOX_STYLE);
+		textBox.addKeyUpHandler(new KeyUpHandler() {
+
+			@Override
+			public void onKeyUp(KeyUpEvent event) {
+				if (event.getNativeKeyCode() == KeyCodes.KEY_ENTER) {
+					search();
+				} else if (incremental) {
+					scheduleIncrementalSearch();
+				}
+			}
+		});
 		flowPanel.add(textBox);
 
 		Button search = constructButton(youTubeMessages.search());
@@ -97,7 +209,7 @@ public class YouTubeSearchPanel extends CustomizableUIComposite {
 
 			@Override
 			public void onClick(ClickEvent event) {
-				SearchEvent.fire(YouTubeSearchPanel.this, textBox.getValue());
+				search();
 			}
 		});
 		flowPanel.add(search);
@@ -1,5 +1,6 @@
 package com.google.gdata.client.youtube.ui;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -8,7 +9,11 @@ import java.util.Set;
 
 import com.google.gdata.client.Query;
 import com.google.gdata.client.QueryPage;
+import com.google.gdata.client.json.RequestHandle;
+import com.google.gdata.client.json.RequestPriority;
 import com.google.gdata.client.util.DateTimeHelper;
+import com.google.gdata.client.youtube.FieldsProjection;
+import com.google.gdata.client.youtube.VideoEntryProperty;
 import com.google.gdata.client.youtube.YouTubeManager;
 import com.google.gdata.client.youtube.ui.YouTubePaginator.PagingEvent;
 import com.google.gdata.data.Category;
@@ -19,9 +24,11 @@ import com.google.gdata.data.media.mediarss.MediaThumbnail;
 import com.google.gdata.data.youtube.VideoEntry;
 import com.google.gdata.data.youtube.VideoFeed;
 import com.google.gdata.data.youtube.YouTubeMediaGroup;
+import com.google.gdata.util.CompactSet;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.event.dom.client.ClickEvent;
 import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.gwt.user.client.ui.Button;
 import com.google.gwt.user.client.ui.DialogBox;
@@ -66,6 +73,17 @@ public class YouTubeSearchResultPanel extends CustomizableUIComposite {
 	}
 	
 	public static class YouTubeSearchResult {
+
+		/**
+		 * Returns the projection of the video entry properties read by the search result. The entry id is not shown,
+		 * the feed caches match entries by it.
+		 */
+		public static FieldsProjection createProjection() {
+			return new FieldsProjection(VideoEntryProperty.ID, VideoEntryProperty.VIDEO_ID,
+					VideoEntryProperty.THUMBNAILS, VideoEntryProperty.DESCRIPTION, VideoEntryProperty.CATEGORIES,
+					VideoEntryProperty.TITLE, VideoEntryProperty.AUTHORS, VideoEntryProperty.UPDATED,
+					VideoEntryProperty.VIEW_COUNT);
+		}
 		
 		private String videoId;
 		private String thumbnailUrl;
@@ -124,7 +142,7 @@ public class YouTubeSearchResultPanel extends CustomizableUIComposite {
 
 			List<Person> persons = entry.getAuthors();
 
-			authors = new HashSet<String>();
+			authors = new CompactSet<String>();
 
 			if (persons != null) {
 				for (Person person : persons) {
@@ -193,11 +211,60 @@ public class YouTubeSearchResultPanel extends CustomizableUIComposite {
 
 	private static final QueryPage DEFAULT_QUERY_PAGE = new QueryPage(1, 5, Query.UNDEFINED);
 	
+	private PagePrefetchPolicy prefetchPolicy = new PagePrefetchPolicy();
+
+	private SearchPrefixCache prefixCache = new SearchPrefixCache();
+
+	private FieldsProjection projection = YouTubeSearchResult.createProjection();
+
+	private Timer prefetchTimer;
+
+	/** Prefetch queries issued by this panel, other panels prefetch on their own. */
+	private final List<RequestHandle> prefetchRequests = new ArrayList<RequestHandle>();
+
+	/** Query of the results being loaded, cancelled when another one starts. */
+	private RequestHandle currentRequest;
+
 	public YouTubeSearchResultPanel() {
 		container = new FlowPanel();
 		initWidget(container);
 	}
 
+	public PagePrefetchPolicy getPrefetchPolicy() {
+		return prefetchPolicy;
+	}
+
+	/**
+	 * Sets the policy of fetching pages adjacent to the shown one, {@code null} disables prefetching.
+	 */
+	public void setPrefetchPolicy(PagePrefetchPolicy prefetchPolicy) {
+		this.prefetchPolicy = prefetchPolicy;
+	}
+
+	public FieldsProjection getProjection() {
+		return projection;
+	}
+
+	/**
+	 * Sets the properties of video entries requested from the server, subclasses showing more than
+	 * {@link YouTubeSearchResult} add their properties to it. {@code null} requests complete entries.
+	 */
+	public void setProjection(FieldsProjection projection) {
+		this.projection = projection;
+	}
+
+	public SearchPrefixCache getPrefixCache() {
+		return prefixCache;
+	}
+
+	/**
+	 * Sets the cache of earlier searches used to show estimated results while a longer search term is loading,
+	 * {@code null} disables the estimates.
+	 */
+	public void setPrefixCache(SearchPrefixCache prefixCache) {
+		this.prefixCache = prefixCache;
+	}
+
 	public void showResults(String textQuery) {
 		showResults(textQuery, true, DEFAULT_QUERY_PAGE);
 	}
@@ -212,7 +279,12 @@ public class YouTubeSearchResultPanel extends CustomizableUIComposite {
 	
 	public void showResults(final String textQuery, final boolean allowPlay, final QueryPage pageQuery) {
 
-		YouTubeManager youTubeManager = new YouTubeManager();
+		cancelPrefetch();
+		if (prefetchPolicy != null) {
+			prefetchPolicy.onPageRequested(textQuery, YouTubePaginator.getPageIndex(pageQuery));
+		}
+
+		YouTubeManager youTubeManager = createManager();
 
 		AsyncCallback<VideoFeed> callback = new AsyncCallback<VideoFeed>() {
 
@@ -223,11 +295,40 @@ public class YouTubeSearchResultPanel extends CustomizableUIComposite {
 
 			@Override
 			public void onSuccess(VideoFeed feed) {
+				if (prefixCache != null && YouTubePaginator.getPageIndex(pageQuery) == 1) {
+					prefixCache.put(textQuery, feed);
+				}
 				showResults(textQuery, allowPlay, new QueryPage(feed.getStartIndex(), feed.getItemsPerPage(), feed.getTotalResults()), feed);
 			}
 		};
 
-		youTubeManager.retrieveVideo(textQuery, pageQuery, callback);
+		if (currentRequest != null) {
+			currentRequest.cancel();
+		}
+		// a feed stored in the browser is passed to the callback right away and replaces the estimate
+		showEstimatedResults(textQuery, allowPlay, pageQuery);
+		currentRequest = youTubeManager.retrieveVideo(textQuery, pageQuery, RequestPriority.INTERACTIVE, callback);
+		// prefetches of this panel are superseded by the query, the query keeps a shared request alive
+		cancelPrefetchRequests();
+	}
+
+	/**
+	 * Shows the cached results of an earlier search narrowed to the search term until the query is answered.
+	 */
+	private void showEstimatedResults(String textQuery, boolean allowPlay, QueryPage pageQuery) {
+		if (prefixCache == null || YouTubePaginator.getPageIndex(pageQuery) != 1) {
+			return;
+		}
+		List<VideoEntry> entries = prefixCache.get(textQuery);
+		if (entries == null) {
+			return;
+		}
+		Set<YouTubeSearchResult> searchResult = new HashSet<YouTubeSearchResult>();
+		for (VideoEntry videoEntry : entries) {
+			searchResult.add(new YouTubeSearchResult(videoEntry));
+		}
+		container.clear();
+		container.add(prepareUI(searchResult, allowPlay));
 	}
 
 	private void showResults(final String textQuery, final boolean allowPlay, final QueryPage pageQuery, final VideoFeed feed) {
@@ -252,13 +353,74 @@ public class YouTubeSearchResultPanel extends CustomizableUIComposite {
 			
 			@Override
 			public void onPage(PagingEvent<YouTubePaginator> event) {
-				showResults(textQuery, allowPlay, new QueryPage((event.getPageIndex() - 1) * pageQuery.getItemsPerPage() + 1, pageQuery.getItemsPerPage(), feed.getTotalResults()));
+				showResults(textQuery, allowPlay, YouTubePaginator.getQueryPage(pageQuery, event.getPageIndex()));
 			}
 		});
 		
 		youTubePaginator.setQueryPage(pageQuery);
 		youTubePaginator.showPagingButtons();
 		container.add(youTubePaginator);
+
+		schedulePrefetch(textQuery, pageQuery);
+	}
+
+	private YouTubeManager createManager() {
+		YouTubeManager youTubeManager = new YouTubeManager();
+		youTubeManager.setProjection(projection);
+		return youTubeManager;
+	}
+
+	private void cancelPrefetch() {
+		if (prefetchTimer != null) {
+			prefetchTimer.cancel();
+			prefetchTimer = null;
+		}
+	}
+
+	private void cancelPrefetchRequests() {
+		for (RequestHandle request : prefetchRequests) {
+			request.cancel();
+		}
+		prefetchRequests.clear();
+	}
+
+	/**
+	 * Fetches pages adjacent to the shown one after a while, so the feed cache can answer when the user pages.
+	 */
+	private void schedulePrefetch(final String textQuery, final QueryPage pageQuery) {
+		if (prefetchPolicy == null || pageQuery.getItemsPerPage() <= 0) {
+			return;
+		}
+
+		final List<Integer> pages = prefetchPolicy.getPagesToPrefetch(textQuery,
+				YouTubePaginator.getPageIndex(pageQuery), YouTubePaginator.getMaxPageIndex(pageQuery));
+		if (pages.isEmpty()) {
+			return;
+		}
+
+		prefetchTimer = new Timer() {
+
+			@Override
+			public void run() {
+				prefetchTimer = null;
+				YouTubeManager youTubeManager = createManager();
+				for (Integer page : pages) {
+					prefetchRequests.add(youTubeManager.retrieveVideo(textQuery,
+							YouTubePaginator.getQueryPage(pageQuery, page.intValue()), RequestPriority.PREFETCH,
+							new AsyncCallback<VideoFeed>() {
+
+								@Override
+								public void onFailure(Throwable caught) {
+								}
+
+								@Override
+								public void onSuccess(VideoFeed result) {
+								}
+							}));
+				}
+			}
+		};
+		prefetchTimer.schedule(Math.max(1, prefetchPolicy.getDelay()));
 	}
 	
 	protected YouTubePaginator constructPaginator() {
@@ -2,9 +2,7 @@ package com.google.gdata.data;
 
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
@@ -14,6 +12,8 @@ import sk.seges.acris.json.client.annotation.JsonObject;
 import sk.seges.acris.json.client.extension.ExtensionPoint;
 
 import com.google.gdata.client.Service;
+import com.google.gdata.util.CompactList;
+import com.google.gdata.util.CompactSet;
 
 /**
  * The BaseEntry class is an abstract base class that defines the in-memory object model for GData entries.
@@ -127,9 +127,9 @@ public abstract class BaseEntry extends ExtensionPoint implements IEntry {
 		@DateTimePattern(Source.DATE_TIME_PATTERN)
 		public Date edited;
 
-		/** Categories of entry. */
+		/** Categories of entry, {@code null} until the entry has categories. */
 		@Field("category")
-		public HashSet<Category> categories = new HashSet<Category>();
+		public CompactSet<Category> categories;
 
 		/** Title of entry. */
 		@Field
@@ -148,17 +148,17 @@ public abstract class BaseEntry extends ExtensionPoint implements IEntry {
 		// @Field
 		public Content content;
 
-		/** Links of entry. */
+		/** Links of entry, {@code null} until the entry has links. */
 		@Field("link")
-		public LinkedList<Link> links = new LinkedList<Link>();
+		public LinkList links;
 
-		/** Authors of entry. */
+		/** Authors of entry, {@code null} until the entry has authors. */
 		@Field("author")
-		public LinkedList<Person> authors = new LinkedList<Person>();
+		public CompactList<Person> authors;
 
-		/** Contributors of entry. */
+		/** Contributors of entry, {@code null} until the entry has contributors. */
 		@Field("contributor")
-		public LinkedList<Person> contributors = new LinkedList<Person>();
+		public CompactList<Person> contributors;
 
 	    /**
 	     * Atom publication control status, which contains the draft status.
@@ -174,6 +174,34 @@ public abstract class BaseEntry extends ExtensionPoint implements IEntry {
 		/** {code true} if the entry can be modified by a client. */
 		public boolean canEdit = true;
 
+		CompactSet<Category> categories() {
+			if (categories == null) {
+				categories = new CompactSet<Category>();
+			}
+			return categories;
+		}
+
+		LinkList links() {
+			if (links == null) {
+				links = new LinkList();
+			}
+			return links;
+		}
+
+		CompactList<Person> authors() {
+			if (authors == null) {
+				authors = new CompactList<Person>();
+			}
+			return authors;
+		}
+
+		CompactList<Person> contributors() {
+			if (contributors == null) {
+				contributors = new CompactList<Person>();
+			}
+			return contributors;
+		}
+
 	}
 
 	/**
@@ -326,7 +354,7 @@ public abstract class BaseEntry extends ExtensionPoint implements IEntry {
 	}
 
 	public Set<Category> getCategories() {
-		return state.categories;
+		return state.categories();
 	}
 
 	public TextConstruct getTitle() {
@@ -420,11 +448,11 @@ public abstract class BaseEntry extends ExtensionPoint implements IEntry {
 	}
 
 	public List<Link> getLinks() {
-		return state.links;
+		return state.links();
 	}
 
 	public void addLink(Link link) {
-		state.links.add(link);
+		state.links().add(link);
 	}
 
 	public Link addLink(String rel, String type, String href) {
@@ -434,11 +462,11 @@ public abstract class BaseEntry extends ExtensionPoint implements IEntry {
 	}
 
 	public List<Person> getAuthors() {
-		return state.authors;
+		return state.authors();
 	}
 
 	public List<Person> getContributors() {
-		return state.contributors;
+		return state.contributors();
 	}
 
 	public Source getSource() {
@@ -455,14 +483,7 @@ public abstract class BaseEntry extends ExtensionPoint implements IEntry {
 	 * If either parameter is {@code null}, doesn't return matches for that parameter.
 	 */
 	public Link getLink(String rel, String type) {
-
-		for (Link link : state.links) {
-			if (link.matches(rel, type)) {
-				return link;
-			}
-		}
-
-		return null;
+		return state.links().find(rel, type);
 	}
 
 	/**
@@ -476,7 +497,7 @@ public abstract class BaseEntry extends ExtensionPoint implements IEntry {
 	 */
 	public List<Link> getLinks(String relToMatch, String typeToMatch) {
 		List<Link> result = new ArrayList<Link>();
-		for (Link link : state.links) {
+		for (Link link : state.links()) {
 			if (link.matches(relToMatch, typeToMatch)) {
 				result.add(link);
 			}
@@ -493,7 +514,7 @@ public abstract class BaseEntry extends ExtensionPoint implements IEntry {
 	 *            {@code type} value to match or {@code null} to match any {@code type} value.
 	 */
 	public void removeLinks(String relToMatch, String typeToMatch) {
-		for (Iterator<Link> iterator = state.links.iterator(); iterator.hasNext();) {
+		for (Iterator<Link> iterator = state.links().iterator(); iterator.hasNext();) {
 			Link link = iterator.next();
 			if (link.matches(relToMatch, typeToMatch)) {
 				iterator.remove();
@@ -505,7 +526,7 @@ public abstract class BaseEntry extends ExtensionPoint implements IEntry {
 	 * Remove all links.
 	 */
 	public void removeLinks() {
-		state.links.clear();
+		state.links().clear();
 	}
 
 	/**
@@ -535,7 +556,7 @@ public abstract class BaseEntry extends ExtensionPoint implements IEntry {
 			link.setTitle(title);
 		}
 
-		state.links.add(link);
+		state.links().add(link);
 	}
 
 	/** Retrieves the media resource edit link. */
@@ -270,14 +270,7 @@ public abstract class BaseFeed<E extends BaseEntry> extends Source implements IF
 	 * If either parameter is {@code null}, doesn't return matches for that parameter.
 	 */
 	public Link getLink(String rel, String type) {
-
-		for (Link link : srcState.links) {
-			if (link.matches(rel, type)) {
-				return link;
-			}
-		}
-
-		return null;
+		return srcState.links().find(rel, type);
 	}
 
 	/** Returns the entry post link for the feed. */
@@ -0,0 +1,111 @@
+package com.google.gdata.data;
+
+import java.util.HashMap;
+
+import com.google.gdata.util.CompactList;
+
+/**
+ * List of links indexed by their relation and type. Links appended to the list, as the deserializers do, are added to
+ * the index, so the links of a deserialized entry or feed are indexed when they are deserialized. Other modifications
+ * invalidate the index, it is rebuilt on the next lookup. Changing the relation or type of a link already held in the
+ * list is not reflected by the index until the list is modified.
+ */
+public class LinkList extends CompactList<Link> {
+
+	private HashMap<String, Link> byRel;
+
+	private HashMap<String, HashMap<String, Link>> byRelAndType;
+
+	/** Value of {@code modCount} the index was built for, the index of the empty list is empty. */
+	private int indexedModCount = 0;
+
+	public LinkList() {
+	}
+
+	/**
+	 * Returns the first link with the supplied {@code rel} and/or {@code type} value, a {@code null} parameter matches
+	 * any value.
+	 */
+	public Link find(String rel, String type) {
+		if (rel == null) {
+			// lookups by type only are rare, not worth another index
+			for (int i = 0; i < size(); i++) {
+				Link link = get(i);
+				if (link.matches(rel, type)) {
+					return link;
+				}
+			}
+			return null;
+		}
+		if (indexedModCount != modCount) {
+			index();
+		}
+		if (byRel == null) {
+			return null;
+		}
+		if (type == null) {
+			return byRel.get(rel);
+		}
+		HashMap<String, Link> byType = byRelAndType.get(rel);
+		return byType == null ? null : byType.get(type);
+	}
+
+	private void index() {
+		byRel = null;
+		byRelAndType = null;
+		for (int i = 0; i < size(); i++) {
+			addToIndex(get(i));
+		}
+		indexedModCount = modCount;
+	}
+
+	/**
+	 * Adds a link to the index unless a previous link has the same relation, or relation and type.
+	 */
+	private void addToIndex(Link link) {
+		if (byRel == null) {
+			byRel = new HashMap<String, Link>();
+			byRelAndType = new HashMap<String, HashMap<String, Link>>();
+		}
+		String rel = link.getRel();
+		if (!byRel.containsKey(rel)) {
+			byRel.put(rel, link);
+		}
+		if (link.getType() != null) {
+			HashMap<String, Link> byType = byRelAndType.get(rel);
+			if (byType == null) {
+				byType = new HashMap<String, Link>(4);
+				byRelAndType.put(rel, byType);
+			}
+			if (!byType.containsKey(link.getType())) {
+				byType.put(link.getType(), link);
+			}
+		}
+	}
+
+	@Override
+	public void add(int index, Link element) {
+		boolean indexed = indexedModCount == modCount;
+		super.add(index, element);
+		// a link appended to an indexed list does not change the links found first
+		if (indexed && index == size() - 1 && element != null) {
+			addToIndex(element);
+			indexedModCount = modCount;
+		}
+	}
+
+	@Override
+	public Link set(int index, Link element) {
+		// replacing a link does not change the structure of the list, the index has to be rebuilt anyway
+		modCount++;
+		return super.set(index, element);
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		byRel = null;
+		byRelAndType = null;
+		indexedModCount = modCount;
+	}
+}
@@ -2,9 +2,7 @@ package com.google.gdata.data;
 
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
@@ -13,6 +11,9 @@ import sk.seges.acris.json.client.annotation.Field;
 import sk.seges.acris.json.client.annotation.JsonObject;
 import sk.seges.acris.json.client.extension.ExtensionPoint;
 
+import com.google.gdata.util.CompactList;
+import com.google.gdata.util.CompactSet;
+
 public class Source extends ExtensionPoint {
 
 	public static final String DATE_TIME_PATTERN = "y-M-d'T'H:m:s.SSSZ";
@@ -29,9 +30,9 @@ public class Source extends ExtensionPoint {
 		@DateTimePattern(Source.DATE_TIME_PATTERN)
 		public Date updated;
 
-		/** Categories. */
+		/** Categories, {@code null} until the source has categories. */
 		@Field("category")
-		public HashSet<Category> categories = new HashSet<Category>();
+		public CompactSet<Category> categories;
 
 		/** Title. */
 		@Field
@@ -53,21 +54,49 @@ public class Source extends ExtensionPoint {
 		@Field
 		public String logo;
 
-		/** Links. */
+		/** Links, {@code null} until the source has links. */
 		@Field("link")
-		public LinkedList<Link> links = new LinkedList<Link>();
+		public LinkList links;
 
-		/** Authors. */
+		/** Authors, {@code null} until the source has authors. */
 		@Field("author")
-		public LinkedList<Person> authors = new LinkedList<Person>();
+		public CompactList<Person> authors;
 
-		/** Contributors. */
+		/** Contributors, {@code null} until the source has contributors. */
 		@Field("contributor")
-		public LinkedList<Person> contributors = new LinkedList<Person>();
+		public CompactList<Person> contributors;
 
 		/** Generator. */
 		@Field
 		public Generator generator;
+
+		CompactSet<Category> categories() {
+			if (categories == null) {
+				categories = new CompactSet<Category>();
+			}
+			return categories;
+		}
+
+		LinkList links() {
+			if (links == null) {
+				links = new LinkList();
+			}
+			return links;
+		}
+
+		CompactList<Person> authors() {
+			if (authors == null) {
+				authors = new CompactList<Person>();
+			}
+			return authors;
+		}
+
+		CompactList<Person> contributors() {
+			if (contributors == null) {
+				contributors = new CompactList<Person>();
+			}
+			return contributors;
+		}
 	}
 
 	/**
@@ -108,7 +137,7 @@ public class Source extends ExtensionPoint {
 	}
 
 	public Set<Category> getCategories() {
-		return srcState.categories;
+		return srcState.categories();
 	}
 
 	public TextConstruct getTitle() {
@@ -152,15 +181,15 @@ public class Source extends ExtensionPoint {
 	}
 
 	public List<Link> getLinks() {
-		return srcState.links;
+		return srcState.links();
 	}
 
 	public List<Person> getAuthors() {
-		return srcState.authors;
+		return srcState.authors();
 	}
 
 	public List<Person> getContributors() {
-		return srcState.contributors;
+		return srcState.contributors();
 	}
 
 	public Generator getGenerator() {
@@ -186,14 +215,7 @@ public class Source extends ExtensionPoint {
 	 * If either parameter is {@code null}, doesn't return matches for that parameter.
 	 */
 	public Link getLink(String rel, String type) {
-
-		for (Link link : srcState.links) {
-			if (link.matches(rel, type)) {
-				return link;
-			}
-		}
-
-		return null;
+		return srcState.links().find(rel, type);
 	}
 
 	/**
@@ -207,7 +229,7 @@ public class Source extends ExtensionPoint {
 	 */
 	public List<Link> getLinks(String relToMatch, String typeToMatch) {
 		List<Link> result = new ArrayList<Link>();
-		for (Link link : srcState.links) {
+		for (Link link : srcState.links()) {
 			if (link.matches(relToMatch, typeToMatch)) {
 				result.add(link);
 			}
@@ -216,7 +238,7 @@ public class Source extends ExtensionPoint {
 	}
 
 	public void addLink(Link link) {
-		srcState.links.add(link);
+		srcState.links().add(link);
 	}
 
 	public Link addLink(String rel, String type, String href) {
@@ -234,7 +256,7 @@ public class Source extends ExtensionPoint {
 	 *            {@code type} value to match or {@code null} to match any {@code type} value.
 	 */
 	public void removeLinks(String relToMatch, String typeToMatch) {
-		for (Iterator<Link> iterator = srcState.links.iterator(); iterator.hasNext();) {
+		for (Iterator<Link> iterator = srcState.links().iterator(); iterator.hasNext();) {
 			Link link = iterator.next();
 			if (link.matches(relToMatch, typeToMatch)) {
 				iterator.remove();
@@ -246,7 +268,7 @@ public class Source extends ExtensionPoint {
 	 * Removes all links.
 	 */
 	public void removeLinks() {
-		srcState.links.clear();
+		srcState.links().clear();
 	}
 
 	/**
@@ -276,7 +298,7 @@ public class Source extends ExtensionPoint {
 			link.setTitle(title);
 		}
 
-		srcState.links.add(link);
+		srcState.links().add(link);
 	}
 
 	/**
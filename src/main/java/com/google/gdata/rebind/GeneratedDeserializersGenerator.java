@@ -0,0 +1,357 @@
+package com.google.gdata.rebind;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import sk.seges.acris.json.client.annotation.ComplexField;
+import sk.seges.acris.json.client.annotation.Field;
+import sk.seges.acris.json.client.annotation.JsonObject;
+
+import com.google.gwt.core.ext.Generator;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.JConstructor;
+import com.google.gwt.core.ext.typeinfo.JField;
+import com.google.gwt.core.ext.typeinfo.JPackage;
+import com.google.gwt.core.ext.typeinfo.JParameterizedType;
+import com.google.gwt.core.ext.typeinfo.JPrimitiveType;
+import com.google.gwt.core.ext.typeinfo.JType;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.user.rebind.ClassSourceFileComposerFactory;
+import com.google.gwt.user.rebind.SourceWriter;
+
+/**
+ * Generates {@code com.google.gdata.client.deserialize.GeneratedDeserializers}: one class of straight-line
+ * deserialization code per {@link JsonObject} model class of the {@code com.google.gdata.data} and
+ * {@code com.google.gdata.data.youtube} packages, and the implementation dispatching to them.
+ * <p>
+ * The key of a field follows the {@link Field} annotation: its value or the field name, prefixed by the group and
+ * {@code $} when a group is given. A {@link ComplexField} is a path of such keys. Numbers and booleans are converted
+ * directly, every other value is looked up through the jsonizer of the deserialization context, so that the
+ * deserializers registered after the generated ones, such as the one of video entries, apply to nested values too.
+ * <p>
+ * A class gets no deserializer when it cannot be instantiated or populated by code in its package: abstract classes,
+ * classes without public default constructor and classes with private or inaccessible inherited fields. Extension
+ * points get none either, their extensions are resolved by the jsonizer through the extension profile.
+ */
+public class GeneratedDeserializersGenerator extends Generator {
+
+	private static final String[] PACKAGES = { "com.google.gdata.data", "com.google.gdata.data.youtube" };
+
+	private static final String EXTENSION_POINT = "sk.seges.acris.json.client.extension.ExtensionPoint";
+
+	private static final String SUFFIX = "_JsonDeserializer";
+
+	private static final String NAMESPACE_SEPARATOR = "$";
+
+	private static final String DESERIALIZERS = "com.google.gdata.client.deserialize.GeneratedDeserializers";
+
+	private TypeOracle typeOracle;
+
+	/** Generated deserializer class names keyed by the deserialized class. */
+	private Map<JClassType, String> deserializers;
+
+	@Override
+	public String generate(TreeLogger logger, GeneratorContext context, String typeName)
+			throws UnableToCompleteException {
+		typeOracle = context.getTypeOracle();
+		JClassType type = typeOracle.findType(typeName);
+		if (type == null) {
+			logger.log(TreeLogger.ERROR, "Type " + typeName + " not found");
+			throw new UnableToCompleteException();
+		}
+
+		deserializers = new LinkedHashMap<JClassType, String>();
+		for (String packageName : PACKAGES) {
+			JPackage modelPackage = typeOracle.findPackage(packageName);
+			if (modelPackage != null) {
+				for (JClassType modelType : modelPackage.getTypes()) {
+					collect(logger, modelType);
+				}
+			}
+		}
+
+		for (Map.Entry<JClassType, String> entry : deserializers.entrySet()) {
+			generateDeserializer(logger, context, entry.getKey(), entry.getValue());
+		}
+		return generateDispatcher(logger, context, type);
+	}
+
+	private void collect(TreeLogger logger, JClassType type) {
+		if (type.isAnnotationPresent(JsonObject.class) && !deserializers.containsKey(type)) {
+			String reason = getUnsupportedReason(type);
+			if (reason == null) {
+				deserializers.put(type, type.getName().replace('.', '_') + SUFFIX);
+			} else {
+				logger.log(TreeLogger.DEBUG, "No deserializer generated for " + type.getQualifiedSourceName() + ": "
+						+ reason);
+			}
+		}
+		for (JClassType nestedType : type.getNestedTypes()) {
+			collect(logger, nestedType);
+		}
+	}
+
+	private String getUnsupportedReason(JClassType type) {
+		if (type.isClass() == null || type.isAbstract() || !type.isPublic()
+				|| (type.getEnclosingType() != null && !type.isStatic())) {
+			return "not an instantiable class";
+		}
+		JConstructor constructor = type.findConstructor(new JType[0]);
+		if (constructor == null ? type.getConstructors().length > 0 : !constructor.isPublic()) {
+			return "no public default constructor";
+		}
+		JClassType extensionPoint = typeOracle.findType(EXTENSION_POINT);
+		if (extensionPoint != null && type.isAssignableTo(extensionPoint)) {
+			return "extension point";
+		}
+		for (JField field : getFields(type)) {
+			if (field.isPrivate() || field.isFinal()
+					|| (!field.isPublic() && field.getEnclosingType().getPackage() != type.getPackage())) {
+				return "field " + field.getName() + " is not accessible";
+			}
+			if (isCollection(field.getType()) && getElementType(field.getType()) == null) {
+				return "unknown element type of " + field.getName();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the annotated instance fields of the type and its superclasses, superclass fields first.
+	 */
+	private static List<JField> getFields(JClassType type) {
+		List<JField> fields = new ArrayList<JField>();
+		if (type.getSuperclass() != null) {
+			fields.addAll(getFields(type.getSuperclass()));
+		}
+		for (JField field : type.getFields()) {
+			if (!field.isStatic()
+					&& (field.isAnnotationPresent(Field.class) || field.isAnnotationPresent(ComplexField.class))) {
+				fields.add(field);
+			}
+		}
+		return fields;
+	}
+
+	private static String getKey(Field annotation, String defaultName) {
+		String key = annotation.value().length() > 0 ? annotation.value() : defaultName;
+		return annotation.group().length() > 0 ? annotation.group() + NAMESPACE_SEPARATOR + key : key;
+	}
+
+	/**
+	 * Returns the keys leading to the value of the field.
+	 */
+	private static List<String> getPath(JField field) {
+		List<String> path = new ArrayList<String>();
+		ComplexField complexField = field.getAnnotation(ComplexField.class);
+		if (complexField != null) {
+			for (Field annotation : complexField.value()) {
+				path.add(getKey(annotation, path.isEmpty() ? field.getName() : null));
+			}
+		} else {
+			path.add(getKey(field.getAnnotation(Field.class), field.getName()));
+		}
+		return path;
+	}
+
+	private boolean isCollection(JType type) {
+		JClassType classType = type.isClassOrInterface();
+		return classType != null && classType.isAssignableTo(typeOracle.findType("java.util.Collection"));
+	}
+
+	/**
+	 * Returns the element type of a collection, given either by its type argument or by the superclass of a collection
+	 * class, {@code null} if it is not known.
+	 */
+	private static JClassType getElementType(JType type) {
+		for (JClassType classType = type.isClassOrInterface(); classType != null; classType = classType
+				.getSuperclass()) {
+			JParameterizedType parameterized = classType.isParameterized();
+			if (parameterized != null) {
+				JClassType argument = parameterized.getTypeArgs()[0];
+				return argument.isClass() != null || argument.isInterface() != null ? argument : null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the class instantiated for a collection field without value.
+	 */
+	private String getCollectionImplementation(JClassType type) {
+		JClassType erased = type.getErasedType();
+		if (erased.isInterface() == null && !erased.isAbstract()) {
+			return erased.getQualifiedSourceName();
+		}
+		return erased.isAssignableTo(typeOracle.findType("java.util.Set")) ? "java.util.HashSet"
+				: "java.util.ArrayList";
+	}
+
+	private void generateDeserializer(TreeLogger logger, GeneratorContext context, JClassType type, String simpleName) {
+		String packageName = type.getPackage().getName();
+		PrintWriter printWriter = context.tryCreate(logger, packageName, simpleName);
+		if (printWriter == null) {
+			return;
+		}
+		String typeName = type.getQualifiedSourceName();
+
+		ClassSourceFileComposerFactory factory = new ClassSourceFileComposerFactory(packageName, simpleName);
+		factory.addImport("com.google.gwt.json.client.JSONArray");
+		factory.addImport("com.google.gwt.json.client.JSONValue");
+		factory.addImport("sk.seges.acris.json.client.context.DeserializationContext");
+		factory.addImport(DESERIALIZERS);
+		SourceWriter writer = factory.createSourceWriter(context, printWriter);
+
+		writer.println("public static %s create(JSONValue json, DeserializationContext context) {", typeName);
+		writer.indent();
+		writer.println("%s target = new %s();", typeName, typeName);
+		writer.println("populate(json, target, context);");
+		writer.println("return target;");
+		writer.outdent();
+		writer.println("}");
+		writer.println();
+
+		writer.println("public static void populate(JSONValue json, %s target, DeserializationContext context) {",
+				typeName);
+		writer.indent();
+		writer.println("if (json == null || json.isObject() == null) {");
+		writer.indentln("return;");
+		writer.println("}");
+		writer.println("JSONValue value;");
+		for (JField field : getFields(type)) {
+			writer.println();
+			String value = "json";
+			for (String key : getPath(field)) {
+				value = "GeneratedDeserializers.get(" + value + ", \"" + escape(key) + "\")";
+			}
+			writer.println("value = %s;", value);
+			writer.println("if (value != null && value.isNull() == null) {");
+			writer.indent();
+			writeField(writer, field);
+			writer.outdent();
+			writer.println("}");
+		}
+		writer.outdent();
+		writer.println("}");
+		writer.commit(logger);
+	}
+
+	private void writeField(SourceWriter writer, JField field) {
+		String target = "target." + field.getName();
+		JType type = field.getType();
+		JPrimitiveType primitive = type.isPrimitive();
+		if (primitive != null) {
+			writer.println("%s = %s;", target, getPrimitiveConversion(primitive, "value", target));
+			return;
+		}
+		if (isCollection(type)) {
+			JClassType elementType = getElementType(type);
+			writer.println("if (%s == null) {", target);
+			writer.indentln("%s = new %s();", target, getCollectionImplementation(type.isClassOrInterface()));
+			writer.println("}");
+			writer.println("JSONArray %sArray = GeneratedDeserializers.toArray(value);", field.getName());
+			writer.println("for (int i = 0; i < %sArray.size(); i++) {", field.getName());
+			writer.indent();
+			writer.println("%s element = %s;", elementType.getQualifiedSourceName(),
+					getConversion(elementType, field.getName() + "Array.get(i)"));
+			writer.println("if (element != null) {");
+			writer.indentln("%s.add(element);", target);
+			writer.println("}");
+			writer.outdent();
+			writer.println("}");
+			return;
+		}
+		writer.println("%s = %s;", target, getConversion(type, "value"));
+	}
+
+	private static String getPrimitiveConversion(JPrimitiveType type, String value, String defaultValue) {
+		if (type == JPrimitiveType.BOOLEAN) {
+			return "GeneratedDeserializers.toBoolean(" + value + ", " + defaultValue + ")";
+		}
+		if (type == JPrimitiveType.INT) {
+			return "GeneratedDeserializers.toInt(" + value + ", " + defaultValue + ")";
+		}
+		if (type == JPrimitiveType.LONG) {
+			return "GeneratedDeserializers.toLong(" + value + ", " + defaultValue + ")";
+		}
+		if (type == JPrimitiveType.DOUBLE) {
+			return "GeneratedDeserializers.toDouble(" + value + ", " + defaultValue + ")";
+		}
+		if (type == JPrimitiveType.CHAR) {
+			return "(char) GeneratedDeserializers.toInt(" + value + ", " + defaultValue + ")";
+		}
+		// float, short and byte
+		return "(" + type.getSimpleSourceName() + ") GeneratedDeserializers.toDouble(" + value + ", " + defaultValue
+				+ ")";
+	}
+
+	private static String getConversion(JType type, String value) {
+		return "context.getJsonizer().fromJson(" + value + ", " + type.getErasedType().getQualifiedSourceName()
+				+ ".class)";
+	}
+
+	private String generateDispatcher(TreeLogger logger, GeneratorContext context, JClassType type) {
+		String packageName = type.getPackage().getName();
+		String simpleName = type.getName().replace('.', '_') + "Impl";
+		String qualifiedName = packageName + "." + simpleName;
+		PrintWriter printWriter = context.tryCreate(logger, packageName, simpleName);
+		if (printWriter == null) {
+			return qualifiedName;
+		}
+
+		ClassSourceFileComposerFactory factory = new ClassSourceFileComposerFactory(packageName, simpleName);
+		factory.setSuperclass(type.getQualifiedSourceName());
+		factory.addImport("com.google.gwt.json.client.JSONValue");
+		factory.addImport("sk.seges.acris.json.client.JsonizerBuilder");
+		factory.addImport("sk.seges.acris.json.client.context.DeserializationContext");
+		factory.addImport("sk.seges.acris.json.client.deserialization.JsonDeserializer");
+		SourceWriter writer = factory.createSourceWriter(context, printWriter);
+
+		writer.println("@Override");
+		writer.println("protected boolean populateObject(JSONValue json, Object target, "
+				+ "DeserializationContext context) {");
+		writer.indent();
+		writer.println("Class<?> targetClass = target.getClass();");
+		for (Map.Entry<JClassType, String> entry : deserializers.entrySet()) {
+			String typeName = entry.getKey().getQualifiedSourceName();
+			writer.println("if (targetClass == %s.class) {", typeName);
+			writer.indent();
+			writer.println("%s.%s.populate(json, (%s) target, context);", entry.getKey().getPackage().getName(),
+					entry.getValue(), typeName);
+			writer.println("return true;");
+			writer.outdent();
+			writer.println("}");
+		}
+		writer.println("return false;");
+		writer.outdent();
+		writer.println("}");
+		writer.println();
+
+		writer.println("@Override");
+		writer.println("protected void register(JsonizerBuilder jsonizerBuilder) {");
+		writer.indent();
+		for (Map.Entry<JClassType, String> entry : deserializers.entrySet()) {
+			String typeName = entry.getKey().getQualifiedSourceName();
+			writer.println("jsonizerBuilder.registerDeserializer(%s.class, new JsonDeserializer<%s, JSONValue>() {",
+					typeName, typeName);
+			writer.indent();
+			writer.println("@Override");
+			writer.println("public %s deserialize(JSONValue json, DeserializationContext context) {", typeName);
+			writer.indentln("return %s.%s.create(json, context);", entry.getKey().getPackage().getName(),
+					entry.getValue());
+			writer.println("}");
+			writer.outdent();
+			writer.println("});");
+		}
+		writer.outdent();
+		writer.println("}");
+		writer.commit(logger);
+		return qualifiedName;
+	}
+}
@@ -0,0 +1,106 @@
+package com.google.gdata.util;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Array backed list for the small collections held by every entry, like its links and authors. The array is allocated
+ * when the first element is added and grows by half of its size, so empty lists hold no array and lists of a few
+ * elements waste at most one slot.
+ */
+public class CompactList<E> extends AbstractList<E> implements RandomAccess {
+
+	private static final int INITIAL_CAPACITY = 2;
+
+	private Object[] elements;
+
+	private int size = 0;
+
+	public CompactList() {
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public E get(int index) {
+		checkElementIndex(index, size);
+		return (E) elements[index];
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public E set(int index, E element) {
+		checkElementIndex(index, size);
+		E previous = (E) elements[index];
+		elements[index] = element;
+		return previous;
+	}
+
+	@Override
+	public void add(int index, E element) {
+		checkElementIndex(index, size + 1);
+		if (elements == null) {
+			elements = new Object[INITIAL_CAPACITY];
+		} else if (size == elements.length) {
+			Object[] grown = new Object[size + Math.max(1, size >> 1)];
+			System.arraycopy(elements, 0, grown, 0, size);
+			elements = grown;
+		}
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = element;
+		size++;
+		modCount++;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public E remove(int index) {
+		checkElementIndex(index, size);
+		E removed = (E) elements[index];
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		elements[--size] = null;
+		modCount++;
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		// the array is dropped, cleared lists are rarely filled again
+		elements = null;
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		for (int i = 0; i < size; i++) {
+			if (o == null ? elements[i] == null : o.equals(elements[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Shrinks the array to the number of elements.
+	 */
+	public void trimToSize() {
+		if (size == 0) {
+			elements = null;
+		} else if (size < elements.length) {
+			Object[] trimmed = new Object[size];
+			System.arraycopy(elements, 0, trimmed, 0, size);
+			elements = trimmed;
+		}
+	}
+
+	private static void checkElementIndex(int index, int limit) {
+		if (index < 0 || index >= limit) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + limit);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.google.gdata.util;
+
+import java.util.AbstractSet;
+import java.util.HashSet;
+import java.util.Iterator;
+
+/**
+ * Set keeping its elements in a {@link CompactList} in the order they were added. Lookups of small sets scan the
+ * elements, which beats hashing for the few categories or authors of an entry and needs no hash table nor entry nodes.
+ * Sets growing over {@link #INDEX_THRESHOLD} elements are indexed by a hash set, so lookups and additions do not
+ * degrade to linear time.
+ */
+public class CompactSet<E> extends AbstractSet<E> {
+
+	/** Number of elements above which the set is indexed. */
+	public static final int INDEX_THRESHOLD = 8;
+
+	private final CompactList<E> elements = new CompactList<E>();
+
+	private HashSet<E> index;
+
+	public CompactSet() {
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return index != null ? index.contains(o) : elements.indexOf(o) != -1;
+	}
+
+	@Override
+	public boolean add(E e) {
+		if (index != null) {
+			if (!index.add(e)) {
+				return false;
+			}
+		} else if (elements.indexOf(e) != -1) {
+			return false;
+		}
+		elements.add(e);
+		if (index == null && elements.size() > INDEX_THRESHOLD) {
+			index = new HashSet<E>(elements);
+		}
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (index != null && !index.remove(o)) {
+			return false;
+		}
+		int position = elements.indexOf(o);
+		if (position == -1) {
+			return false;
+		}
+		elements.remove(position);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		elements.clear();
+		index = null;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		final Iterator<E> iterator = elements.iterator();
+		return new Iterator<E>() {
+
+			private E last;
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public E next() {
+				last = iterator.next();
+				return last;
+			}
+
+			@Override
+			public void remove() {
+				iterator.remove();
+				if (index != null) {
+					index.remove(last);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Shrinks the backing array to the number of elements.
+	 */
+	public void trimToSize() {
+		elements.trimToSize();
+	}
+}
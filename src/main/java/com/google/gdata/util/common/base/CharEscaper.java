@@ -1,5 +1,7 @@
 package com.google.gdata.util.common.base;
 
+import java.io.IOException;
+
 public abstract class CharEscaper implements Escaper {
 	/**
 	   * Returns the escaped form of a given literal string.
@@ -19,6 +21,85 @@ public abstract class CharEscaper implements Escaper {
 	    return string;
 	  }
 
+	  /**
+	   * Appends the escaped form of a given literal character sequence to the
+	   * output, the unescaped runs of characters are appended in one call.
+	   *
+	   * @param csq the literal characters to be escaped
+	   * @param out the output the escaped characters are appended to
+	   * @throws IOException if appending to the output fails
+	   * @throws NullPointerException if {@code csq} or {@code out} is null
+	   */
+	  public void escape(CharSequence csq, Appendable out) throws IOException {
+	    // Inlineable fast-path loop which hands off to escapeSlow() only if needed
+	    int length = csq.length();
+	    for (int index = 0; index < length; index++) {
+	      if (escape(csq.charAt(index)) != null) {
+	        escapeSlow(csq, index, out);
+	        return;
+	      }
+	    }
+	    out.append(csq);
+	  }
+
+	  /**
+	   * Appends the escaped form of a given literal character sequence to the
+	   * output, the characters before the given index are appended as they are.
+	   * This method is called by the {@link #escape(CharSequence, Appendable)}
+	   * method when it discovers that escaping is required, subclasses overriding
+	   * the fast path call it as well.
+	   *
+	   * @param csq the literal characters to be escaped
+	   * @param index the index to start escaping from
+	   * @param out the output the escaped characters are appended to
+	   * @throws IOException if appending to the output fails
+	   */
+	  protected void escapeSlow(CharSequence csq, int index, Appendable out)
+	      throws IOException {
+	    int length = csq.length();
+	    int unescapedChunkStart = 0;
+	    for (; index < length; index++) {
+	      char[] r = escape(csq.charAt(index));
+	      if (r != null) {
+	        out.append(csq, unescapedChunkStart, index);
+	        appendChars(r, out);
+	        unescapedChunkStart = index + 1;
+	      }
+	    }
+	    if (unescapedChunkStart < length) {
+	      out.append(csq, unescapedChunkStart, length);
+	    }
+	  }
+
+	  /**
+	   * Appends the escaped form of a given literal character sequence to the
+	   * builder.
+	   *
+	   * @see #escape(CharSequence, Appendable)
+	   */
+	  public void escape(CharSequence csq, StringBuilder out) {
+	    try {
+	      escape(csq, (Appendable) out);
+	    } catch (IOException e) {
+	      // StringBuilder does not throw
+	      throw new AssertionError(e);
+	    }
+	  }
+
+	  /**
+	   * Appends the replacement characters, directly when the output is a
+	   * {@link StringBuilder}.
+	   */
+	  static void appendChars(char[] chars, Appendable out) throws IOException {
+	    if (out instanceof StringBuilder) {
+	      ((StringBuilder) out).append(chars);
+	    } else {
+	      for (char c : chars) {
+	        out.append(c);
+	      }
+	    }
+	  }
+
 	  /**
 	   * Returns the escaped form of a given literal string, starting at the given
 	   * index.  This method is called by the {@link #escape(String)} method when it
@@ -1,5 +1,6 @@
 package com.google.gdata.util.common.base;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -34,6 +35,22 @@ public class CharEscaperBuilder {
 			return s;
 		}
 
+		/*
+		 * Overridden for the same reason as escape(String).
+		 */
+		@Override
+		public void escape(CharSequence csq, Appendable out) throws IOException {
+			int length = csq.length();
+			for (int index = 0; index < length; index++) {
+				char c = csq.charAt(index);
+				if (c < replacements.length && replacements[c] != null) {
+					escapeSlow(csq, index, out);
+					return;
+				}
+			}
+			out.append(csq);
+		}
+
 		@Override
 		protected char[] escape(char c) {
 			return c < replaceLength ? replacements[c] : null;
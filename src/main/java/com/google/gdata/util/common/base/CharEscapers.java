@@ -2,6 +2,8 @@ package com.google.gdata.util.common.base;
 
 import static com.google.gdata.util.common.base.Preconditions.checkNotNull;
 
+import java.io.IOException;
+
 public final class CharEscapers {
 	  private CharEscapers() {}
 
@@ -811,6 +813,21 @@ public final class CharEscapers {
 	      }
 	      return s;
 	    }
+
+	    /** Overridden to test the replacements directly, as escape(String). */
+	    @Override public void escape(CharSequence csq, Appendable out)
+	        throws IOException {
+	      int length = csq.length();
+	      for (int index = 0; index < length; index++) {
+	        char c = csq.charAt(index);
+	        if ((c < replacementLength && replacements[c] != null)
+	            || c < safeMin || c > safeMax) {
+	          escapeSlow(csq, index, out);
+	          return;
+	        }
+	      }
+	      out.append(csq);
+	    }
 	  }
 
 	  /**
@@ -1,5 +1,7 @@
 package com.google.gdata.util.common.base;
 
+import java.io.IOException;
+
 /**
  * An object that converts literal text into a format safe for inclusion in a particular context (such as an XML
  * document). Typically (but not always), the inverse process of "unescaping" the text is performed automatically by the
@@ -42,4 +44,29 @@ public interface Escaper {
 	 *             if {@code string} contains badly formed UTF-16 or cannot be escaped for any other reason
 	 */
 	public String escape(String string);
+
+	/**
+	 * Appends the escaped form of a given literal character sequence to the output. When nothing has to be escaped the
+	 * sequence is appended as it is, no intermediate string is created.
+	 * 
+	 * @param csq
+	 *            the literal characters to be escaped
+	 * @param out
+	 *            the output the escaped characters are appended to
+	 * @throws IOException
+	 *             if appending to the output fails
+	 * @throws NullPointerException
+	 *             if {@code csq} or {@code out} is null
+	 * @throws IllegalArgumentException
+	 *             if {@code csq} contains badly formed UTF-16 or cannot be escaped for any other reason, the output may
+	 *             hold part of the escaped form then
+	 */
+	public void escape(CharSequence csq, Appendable out) throws IOException;
+
+	/**
+	 * Appends the escaped form of a given literal character sequence to the builder.
+	 * 
+	 * @see #escape(CharSequence, Appendable)
+	 */
+	public void escape(CharSequence csq, StringBuilder out);
 }
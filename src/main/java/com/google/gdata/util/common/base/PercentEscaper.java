@@ -1,5 +1,7 @@
 package com.google.gdata.util.common.base;
 
+import java.io.IOException;
+
 public class PercentEscaper extends UnicodeEscaper {
 	/**
 	 * A string of safe characters that mimics the behavior of {@link java.net.URLEncoder}.
@@ -35,6 +37,11 @@ public class PercentEscaper extends UnicodeEscaper {
 	 */
 	private final boolean[] safeOctets;
 
+	/**
+	 * Escaped forms of the ASCII characters, {@code null} for the safe ones, built from {@link #safeOctets}.
+	 */
+	private final char[][] asciiEscapes;
+
 	/**
 	 * Constructs a URI escaper with the specified safe characters and optional handling of the space character.
 	 * 
@@ -62,6 +69,25 @@ public class PercentEscaper extends UnicodeEscaper {
 		}
 		this.plusForSpace = plusForSpace;
 		this.safeOctets = createSafeOctets(safeChars);
+		this.asciiEscapes = createAsciiEscapes(safeOctets, plusForSpace);
+	}
+
+	/**
+	 * Creates the escaped forms of the ASCII characters that are not safe.
+	 */
+	private static char[][] createAsciiEscapes(boolean[] safeOctets, boolean plusForSpace) {
+		char[][] escapes = new char[0x80][];
+		for (int c = 0; c < escapes.length; c++) {
+			if (c < safeOctets.length && safeOctets[c]) {
+				continue;
+			}
+			if (c == ' ' && plusForSpace) {
+				escapes[c] = URI_ESCAPED_SPACE;
+			} else {
+				escapes[c] = new char[] { '%', UPPER_HEX_DIGITS[c >>> 4], UPPER_HEX_DIGITS[c & 0xF] };
+			}
+		}
+		return escapes;
 	}
 
 	/**
@@ -115,12 +141,68 @@ public class PercentEscaper extends UnicodeEscaper {
 		for (int index = 0; index < slen; index++) {
 			char c = s.charAt(index);
 			if (c >= safeOctets.length || !safeOctets[c]) {
-				return escapeSlow(s, index);
+				StringBuilder out = new StringBuilder(slen + 16);
+				try {
+					escape(s, index, out);
+				} catch (IOException e) {
+					// StringBuilder does not throw
+					throw new AssertionError(e);
+				}
+				return out.toString();
 			}
 		}
 		return s;
 	}
 
+	/*
+	 * Overridden to scan the leading safe characters by the table only and to escape ASCII characters from the
+	 * precomputed table without decoding code points, as escape(String).
+	 */
+	@Override
+	public void escape(CharSequence csq, Appendable out) throws IOException {
+		int end = csq.length();
+		int index = nextEscapeIndex(csq, 0, end);
+		if (index == end) {
+			out.append(csq);
+			return;
+		}
+		escape(csq, index, out);
+	}
+
+	/**
+	 * Appends the escaped form of the characters to the output, the characters before the given index, the first one to
+	 * escape, are appended as they are.
+	 */
+	private void escape(CharSequence csq, int index, Appendable out) throws IOException {
+		int end = csq.length();
+		int unescapedChunkStart = 0;
+		while (index < end) {
+			char c = csq.charAt(index);
+			char[] escaped;
+			int nextIndex;
+			if (c < 0x80) {
+				escaped = asciiEscapes[c];
+				nextIndex = index + 1;
+			} else {
+				int cp = codePointAt(csq, index, end);
+				if (cp < 0) {
+					throw new IllegalArgumentException("Trailing high surrogate at end of input");
+				}
+				escaped = escape(cp);
+				nextIndex = index + (Character.isSupplementaryCodePoint(cp) ? 2 : 1);
+			}
+			if (escaped != null) {
+				out.append(csq, unescapedChunkStart, index);
+				CharEscaper.appendChars(escaped, out);
+				unescapedChunkStart = nextIndex;
+			}
+			index = nextEscapeIndex(csq, nextIndex, end);
+		}
+		if (unescapedChunkStart < end) {
+			out.append(csq, unescapedChunkStart, end);
+		}
+	}
+
 	/**
 	 * Escapes the given Unicode code point in UTF-8.
 	 */
@@ -128,18 +210,11 @@ public class PercentEscaper extends UnicodeEscaper {
 	protected char[] escape(int cp) {
 		// We should never get negative values here but if we do it will throw an
 		// IndexOutOfBoundsException, so at least it will get spotted.
-		if (cp < safeOctets.length && safeOctets[cp]) {
+		if (cp < 0x80) {
+			// Single byte UTF-8 characters, precomputed, the table is not handed out as the caller may modify the array
+			return copy(asciiEscapes[cp]);
+		} else if (cp < safeOctets.length && safeOctets[cp]) {
 			return null;
-		} else if (cp == ' ' && plusForSpace) {
-			return URI_ESCAPED_SPACE;
-		} else if (cp <= 0x7F) {
-			// Single byte UTF-8 characters
-			// Start with "%--" and fill in the blanks
-			char[] dest = new char[3];
-			dest[0] = '%';
-			dest[2] = UPPER_HEX_DIGITS[cp & 0xF];
-			dest[1] = UPPER_HEX_DIGITS[cp >>> 4];
-			return dest;
 		} else if (cp <= 0x7ff) {
 			// Two byte UTF-8 characters [cp >= 0x80 && cp <= 0x7ff]
 			// Start with "%--%--" and fill in the blanks
@@ -201,4 +276,13 @@ public class PercentEscaper extends UnicodeEscaper {
 		}
 	}
 
+	private static char[] copy(char[] chars) {
+		if (chars == null) {
+			return null;
+		}
+		char[] copy = new char[chars.length];
+		System.arraycopy(chars, 0, copy, 0, chars.length);
+		return copy;
+	}
+
 }
@@ -451,6 +451,14 @@ public class StringUtil {
 		return new String(escaped, 0, pos);
 	}
 
+	/**
+	 * Returns the character of a named HTML escape string like {@code "&amp;"}, or {@code null} when the name is not
+	 * known.
+	 */
+	public static Character getHtmlEscapeCharacter(String escape) {
+		return escapeStrings.get(escape);
+	}
+
 	/**
 	 * Strip white spaces from both end, and collapse white spaces in the middle.
 	 * 
@@ -1,5 +1,7 @@
 package com.google.gdata.util.common.base;
 
+import java.io.IOException;
+
 public abstract class UnicodeEscaper implements Escaper {
 	 /** The amount of padding (chars) to use when growing the escape buffer. */
 	  private static final int DEST_PAD = 32;
@@ -94,6 +96,59 @@ public abstract class UnicodeEscaper implements Escaper {
 	    return index == end ? string : escapeSlow(string, index);
 	  }
 
+	  /**
+	   * Appends the escaped form of a given literal character sequence to the
+	   * output, the unescaped runs of characters are appended in one call. The
+	   * sequence has to be valid UTF-16, as for {@link #escape(String)}.
+	   *
+	   * @param csq the literal characters to be escaped
+	   * @param out the output the escaped characters are appended to
+	   * @throws IOException if appending to the output fails
+	   * @throws NullPointerException if {@code csq} or {@code out} is null
+	   * @throws IllegalArgumentException if invalid surrogate characters are
+	   *         encountered, the characters before them are appended already
+	   */
+	  public void escape(CharSequence csq, Appendable out) throws IOException {
+	    int end = csq.length();
+	    int unescapedChunkStart = 0;
+	    int index = nextEscapeIndex(csq, 0, end);
+	    while (index < end) {
+	      int cp = codePointAt(csq, index, end);
+	      if (cp < 0) {
+	        throw new IllegalArgumentException(
+	            "Trailing high surrogate at end of input");
+	      }
+	      char[] escaped = escape(cp);
+	      int nextIndex = index + (Character.isSupplementaryCodePoint(cp) ? 2 : 1);
+	      if (escaped != null) {
+	        out.append(csq, unescapedChunkStart, index);
+	        CharEscaper.appendChars(escaped, out);
+	        unescapedChunkStart = nextIndex;
+	      }
+	      index = nextEscapeIndex(csq, nextIndex, end);
+	    }
+	    if (unescapedChunkStart == 0) {
+	      out.append(csq);
+	    } else if (unescapedChunkStart < end) {
+	      out.append(csq, unescapedChunkStart, end);
+	    }
+	  }
+
+	  /**
+	   * Appends the escaped form of a given literal character sequence to the
+	   * builder.
+	   *
+	   * @see #escape(CharSequence, Appendable)
+	   */
+	  public void escape(CharSequence csq, StringBuilder out) {
+	    try {
+	      escape(csq, (Appendable) out);
+	    } catch (IOException e) {
+	      // StringBuilder does not throw
+	      throw new AssertionError(e);
+	    }
+	  }
+
 	  /**
 	   * Returns the escaped form of a given literal string, starting at the given
 	   * index.  This method is called by the {@link #escape(String)} method when it
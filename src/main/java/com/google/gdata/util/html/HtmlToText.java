@@ -37,6 +37,7 @@ public final class HtmlToText {
    * For the present, convert &lt;br&gt; to '\n'
    *                  convert &lt;p&gt; and &lt;/p&gt; to '\n'
    *                  convert &lt;li&gt; to "\n- "
+   *                  remove any other tag
    * @throws NullPointerException
    */
   public static String htmlToPlainText(String html) {
@@ -45,26 +46,212 @@ public final class HtmlToText {
       throw new NullPointerException("Html parameter may not be null.");
     }
 
-    // Clear any html indentation and incidental whitespace
-    String text = StringUtil.stripAndCollapse(html);
-
     /*
-     * Replace <br> and <p> tags with new line characters.
-     * Replace <li> tags (HTML bullets) with dashes.
-     * Remove any remaining HTML tags not supported yet.
-     * Finally replace any HTML escape string with appropriate character
+     * The html is converted in a single scan. Tags are replaced or dropped,
+     * escape strings are replaced by their characters, runs of whitespace are
+     * collapsed and lines are wrapped as the text is appended, so no
+     * intermediate strings are created.
      */
-    text = text.replaceAll("<br/>", "\n");
-    text = text.replaceAll("<br>", "\n");
-    text = text.replaceAll("<li>", "\n- ");
-    text = StringUtil.unescapeHTML(text).trim();
+    Converter converter = new Converter(html.length(), EMAIL_LINE_WIDTH_MAX);
+    int length = html.length();
+    int i = 0;
+    while (i < length) {
+      char c = html.charAt(i);
+      if (c == '<') {
+        i = converter.tag(html, i);
+      } else if (c == '&') {
+        i = converter.escape(html, i);
+      } else {
+        if (StringUtil.WHITE_SPACES.indexOf(c) != -1) {
+          converter.space();
+        } else {
+          converter.append(c);
+        }
+        i++;
+      }
+    }
+    return converter.toString();
+  }
 
-    /*
-     * Ensure no line of plain text is longer than default (72 chars)
-     * NOTE: Use String.split, NOT StringUtil.split, in order to preserve
-     * consecutive newline characters originating from <br> and <p> tags
+  /**
+   * Output buffer of the conversion. Whitespace and line breaks are held back
+   * until the next visible character, so they are collapsed and never end up
+   * at the beginning or end of the text or of a line.
+   */
+  private static final class Converter {
+
+    private final StringBuilder out;
+    private final int width;
+
+    /** Index of the first character of the current line. */
+    private int lineStart = 0;
+
+    /** Index of the last space of the current line, -1 if there is none. */
+    private int lastSpace = -1;
+
+    private boolean pendingSpace = false;
+
+    private int pendingLineBreaks = 0;
+
+    Converter(int capacity, int width) {
+      this.out = new StringBuilder(capacity);
+      this.width = width;
+    }
+
+    void space() {
+      pendingSpace = true;
+    }
+
+    void lineBreak() {
+      pendingSpace = false;
+      pendingLineBreaks++;
+    }
+
+    /**
+     * Appends a visible character. A line longer than the width is broken at
+     * its last space; a single word longer than the width is not broken.
+     */
+    void append(char c) {
+      if (out.length() > 0) {
+        if (pendingLineBreaks > 0) {
+          for (; pendingLineBreaks > 0; pendingLineBreaks--) {
+            out.append('\n');
+          }
+          lineStart = out.length();
+          lastSpace = -1;
+        } else if (pendingSpace) {
+          lastSpace = out.length();
+          out.append(' ');
+        }
+      }
+      pendingSpace = false;
+      pendingLineBreaks = 0;
+
+      out.append(c);
+      if (out.length() - lineStart > width && lastSpace != -1) {
+        out.setCharAt(lastSpace, '\n');
+        lineStart = lastSpace + 1;
+        lastSpace = -1;
+      }
+    }
+
+    /**
+     * Handles the tag starting at the index.
+     *
+     * @return index after the tag
+     */
+    int tag(String html, int start) {
+      int end = -1;
+      if (start + 1 < html.length()) {
+        char next = html.charAt(start + 1);
+        if (Character.isLetter(next) || next == '/' || next == '!') {
+          end = html.indexOf('>', start);
+        }
+      }
+      if (end == -1) {
+        // not a tag
+        append('<');
+        return start + 1;
+      }
+
+      int nameStart = start + 1;
+      if (nameStart < end && html.charAt(nameStart) == '/') {
+        nameStart++;
+      }
+      int nameEnd = nameStart;
+      while (nameEnd < end && Character.isLetterOrDigit(html.charAt(nameEnd))) {
+        nameEnd++;
+      }
+
+      if (isTag(html, nameStart, nameEnd, "br")
+          || isTag(html, nameStart, nameEnd, "p")) {
+        lineBreak();
+      } else if (isTag(html, nameStart, nameEnd, "li")
+          && html.charAt(start + 1) != '/') {
+        lineBreak();
+        append('-');
+        space();
+      }
+      return end + 1;
+    }
+
+    private static boolean isTag(String html, int start, int end, String name) {
+      return end - start == name.length()
+          && html.regionMatches(true, start, name, 0, name.length());
+    }
+
+    /**
+     * Handles the escape string like {@code &amp;} or {@code &#38;} starting
+     * at the index, unrecognized escape strings are kept as they are.
+     *
+     * @return index after the escape string
      */
-    return StringUtil.fixedWidth(text.split("\n"), EMAIL_LINE_WIDTH_MAX);
+    int escape(String html, int start) {
+      int length = html.length();
+      // Allow e.g. &#123;
+      int j = start + 1;
+      if (j < length && html.charAt(j) == '#') {
+        j++;
+      }
+      // Scan until we find a char that is not letter or digit.
+      while (j < length && Character.isLetterOrDigit(html.charAt(j))) {
+        j++;
+      }
+
+      if (j < length && html.charAt(j) == ';') {
+        int c;
+        if (html.charAt(start + 1) == '#') {
+          c = parseCharCode(html, start + 2, j);
+        } else {
+          Character repl =
+              StringUtil.getHtmlEscapeCharacter(html.substring(start, j + 1));
+          c = repl != null ? repl.charValue() : -1;
+        }
+        if (c != -1) {
+          append((char) c);
+          return j + 1;
+        }
+        j++; // Skip over ';'
+      }
+
+      // Not a recognized escape sequence, leave as-is
+      for (int i = start; i < j; i++) {
+        append(html.charAt(i));
+      }
+      return j;
+    }
+
+    /**
+     * Parses the decimal or, when prefixed by 'x', hexadecimal character code.
+     *
+     * @return the character code or -1 if it is invalid or out of range
+     */
+    private static int parseCharCode(String html, int start, int end) {
+      int radix = 10;
+      if (start < end && (html.charAt(start) == 'x' || html.charAt(start) == 'X')) {
+        radix = 16;
+        start++;
+      }
+      if (start == end) {
+        return -1;
+      }
+      int code = 0;
+      for (int i = start; i < end; i++) {
+        int digit = Character.digit(html.charAt(i), radix);
+        if (digit == -1) {
+          return -1;
+        }
+        code = code * radix + digit;
+        if (code > 0xFFFF) {
+          return -1;
+        }
+      }
+      return code > 0 ? code : -1;
+    }
+
+    @Override
+    public String toString() {
+      return out.toString();
+    }
   }
 }
-
@@ -0,0 +1,80 @@
+package com.google.gdata.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+
+import org.junit.Test;
+
+import com.google.gdata.client.Query.CustomParameter;
+
+public class QueryTest {
+
+	private static final String FEED_URL = "http://gdata.youtube.com/feeds/api/videos";
+
+	@Test
+	public void addedCustomParametersAreSortedByName() {
+		Query query = new Query(FEED_URL);
+		query.getCustomParameters().add(new CustomParameter("b", "1"));
+		query.getCustomParameters().add(new CustomParameter("a", "2"));
+		query.getCustomParameters().add(new CustomParameter("b", "3"));
+		assertEquals("?a=2&b=1&b=3", query.getQueryUri());
+		assertEquals(3, query.getCustomParameters().size());
+		assertEquals(new CustomParameter("a", "2"), query.getCustomParameters().get(0));
+	}
+
+	@Test
+	public void removingCustomParameterChangesQueryUri() {
+		Query query = new Query(FEED_URL);
+		query.addCustomParameter(new CustomParameter("a", "1"));
+		query.addCustomParameter(new CustomParameter("b", "2"));
+		query.addCustomParameter(new CustomParameter("b", "3"));
+		assertEquals("?a=1&b=2&b=3", query.getQueryUri());
+
+		query.getCustomParameters().remove(new CustomParameter("b", "2"));
+		assertEquals("?a=1&b=3", query.getQueryUri());
+		assertEquals(1, query.getCustomParameters("b").size());
+
+		Iterator<CustomParameter> iterator = query.getCustomParameters().iterator();
+		iterator.next();
+		iterator.remove();
+		assertEquals("?b=3", query.getQueryUri());
+		assertTrue(query.getCustomParameters("a").isEmpty());
+	}
+
+	@Test
+	public void settingCustomParameterChangesQueryUri() {
+		Query query = new Query(FEED_URL);
+		query.addCustomParameter(new CustomParameter("a", "1"));
+		query.addCustomParameter(new CustomParameter("b", "2"));
+		assertEquals("?a=1&b=2", query.getQueryUri());
+
+		query.getCustomParameters().set(0, new CustomParameter("a", "3"));
+		assertEquals("?a=3&b=2", query.getQueryUri());
+
+		query.getCustomParameters().set(0, new CustomParameter("c", "4"));
+		assertEquals("?b=2&c=4", query.getQueryUri());
+	}
+
+	@Test
+	public void clearingCustomParametersChangesQueryUri() {
+		Query query = new Query(FEED_URL);
+		query.addCustomParameter(new CustomParameter("a", "1"));
+		assertEquals("?a=1", query.getQueryUri());
+
+		query.getCustomParameters().clear();
+		assertEquals("", query.getQueryUri());
+		assertTrue(query.getCustomParameters().isEmpty());
+	}
+
+	@Test
+	public void copyDoesNotShareCustomParameters() {
+		Query query = new Query(FEED_URL);
+		query.addCustomParameter(new CustomParameter("a", "1"));
+		Query copy = query.copy();
+		copy.getCustomParameters().add(new CustomParameter("b", "2"));
+		assertEquals("?a=1", query.getQueryUri());
+		assertEquals("?a=1&b=2", copy.getQueryUri());
+	}
+}
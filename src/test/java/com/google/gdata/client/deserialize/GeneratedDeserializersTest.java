@@ -0,0 +1,170 @@
+package com.google.gdata.client.deserialize;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import sk.seges.acris.json.client.IJsonizer;
+
+import com.google.gdata.client.GoogleJsonizerBuilder;
+import com.google.gdata.data.Category;
+import com.google.gdata.data.Link;
+import com.google.gdata.data.Person;
+import com.google.gdata.data.media.mediarss.MediaContent;
+import com.google.gdata.data.media.mediarss.MediaThumbnail;
+import com.google.gdata.data.youtube.VideoEntry;
+import com.google.gdata.data.youtube.VideoFeed;
+import com.google.gdata.data.youtube.YouTubeMediaGroup;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONParser;
+import com.google.gwt.junit.client.GWTTestCase;
+
+/**
+ * Deserializes a video feed with the generated deserializers and with the jsonizer walking the field metadata, and
+ * compares the results.
+ */
+public class GeneratedDeserializersTest extends GWTTestCase {
+
+	private static final String FEED = "{\"version\":\"1.0\",\"encoding\":\"UTF-8\",\"feed\":{"
+			+ "\"id\":{\"$t\":\"http://gdata.youtube.com/feeds/api/standardfeeds/most_popular\"},"
+			+ "\"updated\":{\"$t\":\"2010-06-01T12:00:00.000Z\"},"
+			+ "\"title\":{\"$t\":\"Most Popular\",\"type\":\"text\"},"
+			+ "\"author\":[{\"name\":{\"$t\":\"YouTube\"},\"uri\":{\"$t\":\"http://www.youtube.com/\"}}],"
+			+ "\"link\":[{\"rel\":\"self\",\"type\":\"application/atom+xml\","
+			+ "\"href\":\"http://gdata.youtube.com/feeds/api/standardfeeds/most_popular?start-index=1\"}],"
+			+ "\"openSearch$totalResults\":{\"$t\":100},\"openSearch$startIndex\":{\"$t\":1},"
+			+ "\"openSearch$itemsPerPage\":{\"$t\":2},"
+			+ "\"entry\":[" + entry(1) + "," + entry(2) + "]}}";
+
+	@Override
+	public String getModuleName() {
+		return "com.google.gdata.YouTubeAPI";
+	}
+
+	@Override
+	protected void gwtTearDown() throws Exception {
+		GeneratedDeserializers.setEnabled(true);
+	}
+
+	public void testGeneratedDeserializersMatchJsonizer() {
+		VideoFeed generated = deserialize(true);
+		VideoFeed metadata = deserialize(false);
+
+		assertEquals(metadata.getId(), generated.getId());
+		assertEquals(metadata.getUpdated(), generated.getUpdated());
+		assertEquals(metadata.getTitle().getPlainText(), generated.getTitle().getPlainText());
+		assertEquals(metadata.getTotalResults(), generated.getTotalResults());
+		assertEquals(metadata.getStartIndex(), generated.getStartIndex());
+		assertEquals(metadata.getItemsPerPage(), generated.getItemsPerPage());
+		assertPeopleEquals(metadata.getAuthors(), generated.getAuthors());
+		assertLinksEquals(metadata.getLinks(), generated.getLinks());
+
+		assertEquals(2, generated.getEntries().size());
+		assertEquals(metadata.getEntries().size(), generated.getEntries().size());
+		for (int i = 0; i < generated.getEntries().size(); i++) {
+			assertEntryEquals(metadata.getEntries().get(i), generated.getEntries().get(i));
+		}
+	}
+
+	private static VideoFeed deserialize(boolean generated) {
+		GeneratedDeserializers.setEnabled(generated);
+		IJsonizer jsonizer = new GoogleJsonizerBuilder().create();
+		JSONObject json = JSONParser.parseStrict(FEED).isObject();
+		VideoFeed feed = jsonizer.fromJson(json, VideoFeed.class);
+		// entries are deserialized when read
+		feed.getEntries().size();
+		for (VideoEntry entry : feed.getEntries()) {
+			entry.getMediaGroup();
+		}
+		return feed;
+	}
+
+	private static void assertEntryEquals(VideoEntry expected, VideoEntry actual) {
+		assertNotNull(actual.getId());
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getPublished(), actual.getPublished());
+		assertEquals(expected.getUpdated(), actual.getUpdated());
+		assertEquals(expected.getTitle().getPlainText(), actual.getTitle().getPlainText());
+		assertEquals(expected.getCategories(), actual.getCategories());
+		assertEquals(new ArrayList<Category>(expected.getCategories()),
+				new ArrayList<Category>(actual.getCategories()));
+		assertLinksEquals(expected.getLinks(), actual.getLinks());
+		assertPeopleEquals(expected.getAuthors(), actual.getAuthors());
+		assertEquals(expected.getStatistics().getViewCount(), actual.getStatistics().getViewCount());
+		assertEquals(expected.getStatistics().getFavoriteCount(), actual.getStatistics().getFavoriteCount());
+
+		YouTubeMediaGroup expectedGroup = expected.getMediaGroup();
+		YouTubeMediaGroup actualGroup = actual.getMediaGroup();
+		assertNotNull(actualGroup);
+		assertEquals(expectedGroup.getVideoId(), actualGroup.getVideoId());
+		assertEquals(expectedGroup.getDuration(), actualGroup.getDuration());
+		assertEquals(expectedGroup.getTitle().getPlainTextContent(), actualGroup.getTitle().getPlainTextContent());
+		assertEquals(expectedGroup.getDescription().getPlainTextContent(),
+				actualGroup.getDescription().getPlainTextContent());
+		assertEquals(expectedGroup.getThumbnails().size(), actualGroup.getThumbnails().size());
+		for (int i = 0; i < expectedGroup.getThumbnails().size(); i++) {
+			MediaThumbnail expectedThumbnail = expectedGroup.getThumbnails().get(i);
+			MediaThumbnail actualThumbnail = actualGroup.getThumbnails().get(i);
+			assertEquals(expectedThumbnail.getUrl(), actualThumbnail.getUrl());
+			assertEquals(expectedThumbnail.getWidth(), actualThumbnail.getWidth());
+			assertEquals(expectedThumbnail.getHeight(), actualThumbnail.getHeight());
+		}
+		assertEquals(expectedGroup.getContents().size(), actualGroup.getContents().size());
+		for (int i = 0; i < expectedGroup.getContents().size(); i++) {
+			MediaContent expectedContent = expectedGroup.getContents().get(i);
+			MediaContent actualContent = actualGroup.getContents().get(i);
+			assertEquals(expectedContent.getUrl(), actualContent.getUrl());
+			assertEquals(expectedContent.getDuration(), actualContent.getDuration());
+			assertEquals(expectedContent.getExpression(), actualContent.getExpression());
+		}
+	}
+
+	private static void assertLinksEquals(List<Link> expected, List<Link> actual) {
+		assertEquals(expected.size(), actual.size());
+		Iterator<Link> actualLinks = actual.iterator();
+		for (Link expectedLink : expected) {
+			Link actualLink = actualLinks.next();
+			assertEquals(expectedLink.getRel(), actualLink.getRel());
+			assertEquals(expectedLink.getType(), actualLink.getType());
+			assertEquals(expectedLink.getHref(), actualLink.getHref());
+		}
+	}
+
+	private static void assertPeopleEquals(List<Person> expected, List<Person> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getName(), actual.get(i).getName());
+			assertEquals(expected.get(i).getUri(), actual.get(i).getUri());
+		}
+	}
+
+	private static String entry(int i) {
+		return "{\"id\":{\"$t\":\"tag:youtube.com,2008:video:video" + i + "\"},"
+				+ "\"published\":{\"$t\":\"2010-05-1" + i + "T08:30:00.000Z\"},"
+				+ "\"updated\":{\"$t\":\"2010-06-01T10:15:00.000Z\"},"
+				+ "\"category\":[{\"scheme\":\"http://schemas.google.com/g/2005#kind\","
+				+ "\"term\":\"http://gdata.youtube.com/schemas/2007#video\"},"
+				+ "{\"scheme\":\"http://gdata.youtube.com/schemas/2007/categories.cat\",\"term\":\"Music\","
+				+ "\"label\":\"Music\"}],"
+				+ "\"title\":{\"$t\":\"Video number " + i + "\",\"type\":\"text\"},"
+				+ "\"content\":{\"$t\":\"Description of video " + i + "\",\"type\":\"text\"},"
+				+ "\"link\":[{\"rel\":\"alternate\",\"type\":\"text/html\","
+				+ "\"href\":\"http://www.youtube.com/watch?v=video" + i + "\"},"
+				+ "{\"rel\":\"self\",\"type\":\"application/atom+xml\","
+				+ "\"href\":\"http://gdata.youtube.com/feeds/api/videos/video" + i + "\"}],"
+				+ "\"author\":[{\"name\":{\"$t\":\"author" + i + "\"},"
+				+ "\"uri\":{\"$t\":\"http://gdata.youtube.com/feeds/api/users/author" + i + "\"}}],"
+				+ "\"media$group\":{"
+				+ "\"media$title\":{\"$t\":\"Video number " + i + "\",\"type\":\"plain\"},"
+				+ "\"media$description\":{\"$t\":\"Description of video " + i + "\",\"type\":\"plain\"},"
+				+ "\"media$content\":[{\"url\":\"http://www.youtube.com/v/video" + i + "\","
+				+ "\"type\":\"application/x-shockwave-flash\",\"medium\":\"video\",\"isDefault\":\"true\","
+				+ "\"expression\":\"full\",\"duration\":215,\"yt$format\":5}],"
+				+ "\"media$thumbnail\":[{\"url\":\"http://i.ytimg.com/vi/video" + i + "/0.jpg\","
+				+ "\"height\":360,\"width\":480},{\"url\":\"http://i.ytimg.com/vi/video" + i + "/1.jpg\","
+				+ "\"height\":90,\"width\":120,\"time\":\"00:01:47.500\"}],"
+				+ "\"yt$duration\":{\"seconds\":\"215\"},"
+				+ "\"yt$videoid\":{\"$t\":\"video" + i + "\"}},"
+				+ "\"yt$statistics\":{\"favoriteCount\":\"" + i * 3 + "\",\"viewCount\":\"" + i * 1000 + "\"}}";
+	}
+}
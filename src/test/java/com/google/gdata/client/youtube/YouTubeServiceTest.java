@@ -0,0 +1,44 @@
+package com.google.gdata.client.youtube;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class YouTubeServiceTest {
+
+	private static final String VIDEO_FEED_URL = "http://gdata.youtube.com/feeds/api/videos";
+
+	private static final String MOST_RECENT_FEED_URL = "http://gdata.youtube.com/feeds/api/standardfeeds/most_recent";
+
+	@Test
+	public void mostRecentFeedIsTimeOrdered() {
+		assertTrue(YouTubeService.isTimeOrdered(new YouTubeQuery(MOST_RECENT_FEED_URL)));
+	}
+
+	@Test
+	public void mostRecentFeedOrderedByViewCountIsNotTimeOrdered() {
+		YouTubeQuery query = new YouTubeQuery(MOST_RECENT_FEED_URL);
+		query.setOrderBy(YouTubeQuery.OrderBy.VIEW_COUNT);
+		assertFalse(YouTubeService.isTimeOrdered(query));
+	}
+
+	@Test
+	public void feedOrderedByPublicationTimeIsTimeOrdered() {
+		YouTubeQuery query = new YouTubeQuery(VIDEO_FEED_URL);
+		query.setOrderBy(YouTubeQuery.OrderBy.PUBLISHED);
+		assertTrue(YouTubeService.isTimeOrdered(query));
+	}
+
+	@Test
+	public void feedOrderedByViewCountIsNotTimeOrdered() {
+		YouTubeQuery query = new YouTubeQuery(VIDEO_FEED_URL);
+		query.setOrderBy(YouTubeQuery.OrderBy.VIEW_COUNT);
+		assertFalse(YouTubeService.isTimeOrdered(query));
+	}
+
+	@Test
+	public void feedWithoutOrderIsNotTimeOrdered() {
+		assertFalse(YouTubeService.isTimeOrdered(new YouTubeQuery(VIDEO_FEED_URL)));
+	}
+}
@@ -0,0 +1,160 @@
+package com.google.gdata.util.common.base;
+
+/**
+ * Measures the escapers on query parameters and video titles against the
+ * generic escaping code of {@link UnicodeEscaper} and {@link CharEscaper}
+ * they override. Run it as a Java application, the numbers are nanoseconds
+ * per string, the best of several rounds.
+ */
+public class CharEscapersBenchmark {
+
+  private static final int WARM_UP_ROUNDS = 5;
+
+  private static final int ROUNDS = 10;
+
+  private static final int ITERATIONS = 100000;
+
+  /** Query parameter values, most of them need no escaping. */
+  private static final String[] QUERY_VALUES = {
+      "published", "viewCount", "25", "relevance_lang_en", "HD",
+      "skateboarding dog", "cats|dogs", "Music", "-/Comedy/Film",
+      "http://gdata.youtube.com/schemas/2007/categories.cat",
+      "entry(id,title,media:group(yt:videoid))", "Bj\u00f6rk live",
+      "\u6771\u4eac \u30e9\u30a4\u30d6"
+  };
+
+  /** Video titles, some of them with markup characters. */
+  private static final String[] TITLES = {
+      "Charlie bit my finger - again !",
+      "Ed Sheeran - Shape of You [Official Video]",
+      "Tom & Jerry <HD> \"The Cat Concerto\"",
+      "Bj\u00f6rk \u2013 Army of Me",
+      "10 hours of relaxing rain sounds for sleeping",
+      "PSY - GANGNAM STYLE (\uac15\ub0a8\uc2a4\ud0c0\uc77c) M/V"
+  };
+
+  private static long sink;
+
+  private interface Task {
+    int run(String input);
+  }
+
+  public static void main(String[] args) {
+    final UnicodeEscaper uriEscaper =
+        (UnicodeEscaper) CharEscapers.uriEscaper();
+    final UnicodeEscaper genericUriEscaper =
+        new GenericUnicodeEscaper(uriEscaper);
+    final CharEscaper xmlEscaper = CharEscapers.xmlEscaper();
+    final CharEscaper genericXmlEscaper = new GenericCharEscaper(xmlEscaper);
+    final StringBuilder out = new StringBuilder();
+
+    compare("uriEscaper escape(String)", QUERY_VALUES, new Task() {
+      @Override public int run(String input) {
+        return genericUriEscaper.escape(input).length();
+      }
+    }, new Task() {
+      @Override public int run(String input) {
+        return uriEscaper.escape(input).length();
+      }
+    });
+    compare("uriEscaper escape(CharSequence, StringBuilder)", QUERY_VALUES,
+        new Task() {
+          @Override public int run(String input) {
+            out.setLength(0);
+            genericUriEscaper.escape(input, out);
+            return out.length();
+          }
+        }, new Task() {
+          @Override public int run(String input) {
+            out.setLength(0);
+            uriEscaper.escape(input, out);
+            return out.length();
+          }
+        });
+    compare("xmlEscaper escape(CharSequence, StringBuilder)", TITLES,
+        new Task() {
+          @Override public int run(String input) {
+            out.setLength(0);
+            genericXmlEscaper.escape(input, out);
+            return out.length();
+          }
+        }, new Task() {
+          @Override public int run(String input) {
+            out.setLength(0);
+            xmlEscaper.escape(input, out);
+            return out.length();
+          }
+        });
+    System.out.println("(" + sink + ")");
+  }
+
+  private static void compare(String name, String[] inputs, Task generic,
+      Task escaper) {
+    for (String input : inputs) {
+      if (generic.run(input) != escaper.run(input)) {
+        throw new IllegalStateException("Escaped differently: " + input);
+      }
+    }
+    for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+      run(generic, inputs);
+      run(escaper, inputs);
+    }
+    long genericBest = Long.MAX_VALUE;
+    long escaperBest = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      genericBest = Math.min(genericBest, run(generic, inputs));
+      escaperBest = Math.min(escaperBest, run(escaper, inputs));
+    }
+    System.out.println(name + ": generic " + nanosPerString(genericBest, inputs)
+        + " ns, overridden " + nanosPerString(escaperBest, inputs) + " ns");
+  }
+
+  /**
+   * Runs the task on every input, returns the elapsed milliseconds.
+   */
+  private static long run(Task task, String[] inputs) {
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < ITERATIONS; i++) {
+      for (String input : inputs) {
+        sink += task.run(input);
+      }
+    }
+    return System.currentTimeMillis() - start;
+  }
+
+  private static long nanosPerString(long millis, String[] inputs) {
+    return Math.round(millis * 1e6 / ((double) ITERATIONS * inputs.length));
+  }
+
+  /**
+   * Escapes through the code of {@link UnicodeEscaper} only, with the
+   * escaped forms of the given escaper.
+   */
+  private static final class GenericUnicodeEscaper extends UnicodeEscaper {
+    private final UnicodeEscaper escaper;
+
+    GenericUnicodeEscaper(UnicodeEscaper escaper) {
+      this.escaper = escaper;
+    }
+
+    @Override protected char[] escape(int cp) {
+      return escaper.escape(cp);
+    }
+  }
+
+  /**
+   * Escapes through the code of {@link CharEscaper} only, with the escaped
+   * forms of the given escaper.
+   */
+  private static final class GenericCharEscaper extends CharEscaper {
+    private final CharEscaper escaper;
+
+    GenericCharEscaper(CharEscaper escaper) {
+      this.escaper = escaper;
+    }
+
+    @Override protected char[] escape(char c) {
+      return escaper.escape(c);
+    }
+  }
+}